@@ -0,0 +1,205 @@
+package com.example.config;
+
+import com.example.model.Job;
+import com.example.repository.JobRepository;
+import com.example.repository.StudentRepository;
+import com.example.security.AuthPrincipal;
+import com.example.security.TokenService;
+import com.example.service.QuestionBankService;
+import com.example.service.ResultService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Opens the pools' minimum connections, loads every job's question bank,
+ * then replays a synthetic mix of the hottest endpoints (test questions,
+ * test submission, job recommendations and listings) over loopback HTTP,
+ * so the servlet container, filters, DispatcherServlet, Jackson,
+ * Hibernate, the question bank cache and the JIT are all warm before real
+ * traffic. The web server is already listening while runners execute;
+ * readiness keeps load balancers away until this returns.
+ *
+ * Nothing is kept. Submissions are signed in as student 0, which never
+ * exists, so the controller scores them but saves nothing; the save path
+ * (ResultService.record) is exercised separately inside a transaction
+ * that is always rolled back. Rolled-back inserts may leave gaps in the
+ * results ids.
+ */
+@Component
+public class ApplicationWarmup {
+    private static final Logger log = LoggerFactory.getLogger(ApplicationWarmup.class);
+
+    private static final String[] LEVELS = { "Beginner", "Intermediate", "Advanced" };
+
+    private static final long WARMUP_STUDENT_ID = 0L; // identity ids start at 1
+    private static final int RECORD_EVERY = 10;
+
+    private final QuestionBankService questionBankService;
+    private final ResultService resultService;
+    private final JobRepository jobRepository;
+    private final StudentRepository studentRepository;
+    private final TokenService tokenService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate rollbackTemplate;
+    private final Environment environment;
+    private final List<HikariDataSource> pools;
+    private final int iterations;
+
+    public ApplicationWarmup(QuestionBankService questionBankService, ResultService resultService,
+                             JobRepository jobRepository, StudentRepository studentRepository,
+                             TokenService tokenService, ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager, Environment environment,
+                             List<HikariDataSource> pools,
+                             @Value("${skillfit.warmup.iterations:500}") int iterations) {
+        this.questionBankService = questionBankService;
+        this.resultService = resultService;
+        this.jobRepository = jobRepository;
+        this.studentRepository = studentRepository;
+        this.tokenService = tokenService;
+        this.objectMapper = objectMapper;
+        this.rollbackTemplate = new TransactionTemplate(transactionManager);
+        this.environment = environment;
+        this.pools = pools;
+        this.iterations = iterations;
+    }
+
+    public void run() {
+        long start = System.currentTimeMillis();
+        try {
+            primePools();
+            questionBankService.getBank(null);
+            for (Job job : jobRepository.findAll()) {
+                questionBankService.getBank(job.getId());
+            }
+            Integer port = environment.getProperty("local.server.port", Integer.class);
+            if (port == null) {
+                log.info("Warm-up skipped the request mix: no web server");
+                return;
+            }
+            String base = "http://localhost:" + port;
+            String token = "Bearer " + tokenService.issue(AuthPrincipal.STUDENT, WARMUP_STUDENT_ID);
+            int failed = 0;
+            for (int i = 0; i < iterations; i++) {
+                QuestionBankService.QuestionBank bank = questionBankService.getBank(null);
+                failed += send(base + "/api/test/questions", null, null);
+                failed += send(base + "/api/test/submit?studentId=" + WARMUP_STUDENT_ID, token, submitBody(bank, i));
+                failed += send(base + "/api/jobs/recommend/" + LEVELS[i % LEVELS.length], null, null);
+                if (i % RECORD_EVERY == 0) {
+                    failed += send(base + "/api/jobs/all", null, null);
+                    recordAndRollBack(bank, i);
+                }
+            }
+            log.info("Warm-up finished: {} iterations in {} ms ({} failed requests)",
+                    iterations, System.currentTimeMillis() - start, failed);
+        } catch (RuntimeException | IOException e) {
+            // A cold instance is slower, not broken
+            log.warn("Warm-up stopped early after {} ms: {}", System.currentTimeMillis() - start, e.toString());
+        }
+    }
+
+    /**
+     * GET, or POST a JSON body; 1 when the response is not a 2xx, for the summary line.
+     * Connections are closed each time so no socket outlives the warm-up (CRaC refuses open ones).
+     */
+    private static int send(String url, String authorization, byte[] jsonBody) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) URI.create(url).toURL().openConnection();
+        try {
+            connection.setRequestProperty("Connection", "close");
+            if (authorization != null) {
+                connection.setRequestProperty("Authorization", authorization);
+            }
+            if (jsonBody != null) {
+                connection.setRequestMethod("POST");
+                connection.setRequestProperty("Content-Type", "application/json");
+                connection.setDoOutput(true);
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(jsonBody);
+                }
+            }
+            int status = connection.getResponseCode();
+            try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                if (in != null) {
+                    in.transferTo(OutputStream.nullOutputStream());
+                }
+            }
+            return status / 100 == 2 ? 0 : 1;
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private byte[] submitBody(QuestionBankService.QuestionBank bank, int iteration) {
+        try {
+            return objectMapper.writeValueAsBytes(Map.of("answers", syntheticAnswers(bank, iteration)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode warm-up answers", e);
+        }
+    }
+
+    // Save a scored test for a real student and roll it back: result insert, rollups and summaries
+    private void recordAndRollBack(QuestionBankService.QuestionBank bank, int iteration) {
+        if (bank.isEmpty()) {
+            return;
+        }
+        rollbackTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            studentRepository.findAll(PageRequest.of(0, 1)).stream().findFirst().ifPresent(student -> {
+                QuestionBankService.ScoredTest scored = bank.score(null, syntheticAnswers(bank, iteration));
+                resultService.record(student, scored.getScore(), scored.getTotalQuestions(),
+                        bank.getRecruiterId(), null, scored.getAnswers());
+            });
+        });
+    }
+
+    // Hikari fills minimum-idle in the background; take the connections now so the first requests don't wait
+    private void primePools() {
+        for (HikariDataSource pool : pools) {
+            List<Connection> held = new ArrayList<>();
+            try {
+                for (int i = 0; i < Math.max(1, pool.getMinimumIdle()); i++) {
+                    held.add(pool.getConnection());
+                }
+            } catch (SQLException e) {
+                log.warn("Could not prime pool {}: {}", pool.getPoolName(), e.toString());
+            } finally {
+                for (Connection connection : held) {
+                    try {
+                        connection.close();
+                    } catch (SQLException e) {
+                        // returning to the pool; nothing to do
+                    }
+                }
+            }
+        }
+    }
+
+    // Alternate right and wrong answers so both scoring branches get compiled
+    private static Map<String, String> syntheticAnswers(QuestionBankService.QuestionBank bank, int iteration) {
+        Map<String, String> answers = new HashMap<>();
+        for (int i = 0; i < bank.size(); i++) {
+            answers.put(Long.toString(bank.id(i)), (i + iteration) % 2 == 0 ? bank.answer(i) : "");
+        }
+        return answers;
+    }
+}
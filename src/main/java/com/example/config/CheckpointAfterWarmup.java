@@ -0,0 +1,47 @@
+package com.example.config;
+
+import org.crac.CheckpointException;
+import org.crac.Core;
+import org.crac.RestoreException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * With skillfit.crac.checkpoint-after-warmup=true, takes a CRaC checkpoint
+ * once WarmupRunner has finished (JVM started with -XX:CRaCCheckpointTo=dir).
+ * Instances restored from it with -XX:CRaCRestoreFrom=dir continue from
+ * here, already warm. Startup fails if warm-up is disabled, rather than
+ * checkpointing a cold JVM that every restored instance would inherit.
+ */
+@Component
+@Order(10)
+@ConditionalOnProperty(name = "skillfit.crac.checkpoint-after-warmup", havingValue = "true")
+public class CheckpointAfterWarmup implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(CheckpointAfterWarmup.class);
+
+    // @ConditionalOnBean is unreliable between scanned components, so check the bean exists here
+    public CheckpointAfterWarmup(ObjectProvider<WarmupRunner> warmupRunner) {
+        if (warmupRunner.getIfAvailable() == null) {
+            throw new IllegalStateException(
+                "skillfit.crac.checkpoint-after-warmup=true needs skillfit.warmup.enabled=true");
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Taking CRaC checkpoint");
+        try {
+            Core.checkpointRestore();
+            log.info("Restored from CRaC checkpoint");
+        } catch (CheckpointException | RestoreException | UnsupportedOperationException e) {
+            // Not a CRaC JVM, or something still held a file or socket; keep running normally
+            log.warn("CRaC checkpoint not taken: {}", e.toString());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.config;
+
+import com.example.security.RateLimitService;
+import com.example.service.CandidateSearchService;
+import com.example.service.EmailService;
+import com.example.service.OtpService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Releases what a CRaC checkpoint cannot contain and re-arms state a
+ * restored clone must not inherit. Spring stops lifecycle beans before a
+ * checkpoint and starts them again after restore; the Hikari pools are
+ * handled by HikariCheckpointRestoreLifecycle.
+ *
+ * Runs in a phase below the web server, so it stops after the server has
+ * stopped taking requests and starts before it takes them again. On a
+ * normal shutdown stop() simply runs early.
+ */
+@Component
+public class CheckpointRestoreLifecycle implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(CheckpointRestoreLifecycle.class);
+
+    private final CandidateSearchService candidateSearch;
+    private final EmailService emailService;
+    private final OtpService otpService;
+    private final RateLimitService rateLimitService;
+    private volatile boolean running;
+    private boolean started; // the first start is the normal context start; nothing to reopen
+
+    public CheckpointRestoreLifecycle(CandidateSearchService candidateSearch, EmailService emailService,
+                                      OtpService otpService, RateLimitService rateLimitService) {
+        this.candidateSearch = candidateSearch;
+        this.emailService = emailService;
+        this.otpService = otpService;
+        this.rateLimitService = rateLimitService;
+    }
+
+    @Override
+    public void start() {
+        if (started) {
+            try {
+                candidateSearch.resume();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot reopen candidate index", e);
+            }
+            otpService.reset();
+            rateLimitService.reset();
+            log.info("Resources reopened after restore");
+        }
+        started = true;
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            // JavaMailSender opens a connection per message, so an idle outbox holds no sockets
+            if (!emailService.awaitOutboxIdle(10000)) {
+                log.warn("Email outbox still busy; checkpoint may fail on an open SMTP connection");
+            }
+            candidateSearch.suspend();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close candidate index", e);
+        }
+        otpService.reset();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
@@ -4,15 +4,21 @@ import com.example.model.Job;
 import com.example.model.QuestionEntity;
 import com.example.repository.JobRepository;
 import com.example.repository.QuestionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 import java.util.Arrays;
 import java.util.List;
 
+// After QuestionOptionsMigration, before warm-up and checkpoint
 @Component
+@Order(1)
 public class DataInitializer implements CommandLineRunner {
+    private static final Logger log = LoggerFactory.getLogger(DataInitializer.class);
 
     @Autowired
     private JobRepository jobRepository;
@@ -90,7 +96,7 @@ public class DataInitializer implements CommandLineRunner {
             );
 
             jobRepository.saveAll(sampleJobs);
-            System.out.println("✅ Initialized " + sampleJobs.size() + " sample jobs in the database.");
+            log.info("Initialized {} sample jobs in the database", sampleJobs.size());
         }
 
         // Initialize sample test questions if database is empty
@@ -199,7 +205,7 @@ public class DataInitializer implements CommandLineRunner {
             );
 
             questionRepository.saveAll(sampleQuestions);
-            System.out.println("✅ Initialized " + sampleQuestions.size() + " sample test questions in the database.");
+            log.info("Initialized {} sample test questions in the database", sampleQuestions.size());
         }
     }
 
@@ -0,0 +1,48 @@
+package com.example.config;
+
+import com.example.model.AnswerRecord;
+import com.example.model.Job;
+import com.example.model.Message;
+import com.example.model.OptionsConverter;
+import com.example.model.Question;
+import com.example.model.QuestionEntity;
+import com.example.model.QuestionStat;
+import com.example.model.Recruiter;
+import com.example.model.ResultEntity;
+import com.example.model.ResultRollup;
+import com.example.model.Student;
+import com.example.model.StudentResultSummary;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection and resource hints for the native image (mvn -Pnative native:compile).
+ * Ignored on the JVM.
+ *
+ * Hibernate reads and writes entity fields reflectively, instantiates the
+ * attribute converter itself, and entities are also serialized by Jackson
+ * (e.g. /api/test/questions/with-answers), so the model classes are
+ * registered in full. PDFBox loads its glyph lists and fonts as classpath
+ * resources.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final Class<?>[] MODEL_CLASSES = {
+        Job.class, Message.class, QuestionEntity.class, QuestionStat.class, Recruiter.class,
+        ResultEntity.class, ResultRollup.class, Student.class, StudentResultSummary.class, AnswerRecord.class,
+        Question.class, OptionsConverter.class
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> type : MODEL_CLASSES) {
+            hints.reflection().registerType(type,
+                MemberCategory.DECLARED_FIELDS,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        hints.resources().registerPattern("org/apache/pdfbox/resources/**");
+        hints.resources().registerPattern("org/apache/fontbox/**");
+    }
+}
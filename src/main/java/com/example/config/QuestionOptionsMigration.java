@@ -0,0 +1,145 @@
+package com.example.config;
+
+import com.example.model.OptionsConverter;
+import com.example.model.OptionsStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Keeps the two question option layouts (see OptionsStorage) usable.
+ *
+ * On start it numbers the legacy question_options rows (option_seq) so
+ * each question's options have an explicit order, then fills the layout
+ * the configured mode reads: INLINE copies table rows into questions whose
+ * options_data is still empty, TABLE copies options_data into the table for
+ * questions that have no rows there. Only missing data is written, so it is
+ * safe to run on every start.
+ */
+@Component
+@Order(0)
+public class QuestionOptionsMigration implements CommandLineRunner {
+    private static final Logger log = LoggerFactory.getLogger(QuestionOptionsMigration.class);
+
+    private static final int BATCH_SIZE = 500;
+    private static final String UPDATE_INLINE =
+            "UPDATE questions SET options_data = ? WHERE id = ? AND options_data IS NULL";
+    private static final String INSERT_TABLE_ROW =
+            "INSERT INTO question_options (question_id, option_value) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbc;
+    private final OptionsConverter converter = new OptionsConverter();
+
+    public QuestionOptionsMigration(JdbcTemplate jdbcTemplate, DataSource dataSource,
+                                    @Value("${skillfit.questions.options-storage:inline}") String storage) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbc = new JdbcTemplate(dataSource);
+        this.streamingJdbc.setFetchSize(BATCH_SIZE);
+        OptionsStorage.use(OptionsStorage.valueOf(storage.trim().toUpperCase(Locale.ROOT)));
+    }
+
+    @Override
+    public void run(String... args) {
+        try {
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM question_options WHERE 1 = 0", Integer.class);
+        } catch (DataAccessException e) {
+            return; // no legacy table, nothing to migrate
+        }
+        ensureSequenceColumn();
+
+        int migrated = OptionsStorage.current() == OptionsStorage.TABLE ? copyInlineToTable() : copyTableToInline();
+        if (migrated > 0) {
+            log.info("Copied options of {} questions for {} option storage", migrated, OptionsStorage.current());
+        }
+    }
+
+    private void ensureSequenceColumn() {
+        try {
+            jdbcTemplate.queryForList("SELECT option_seq FROM question_options WHERE 1 = 0");
+        } catch (DataAccessException e) {
+            // The legacy table has no key; the rebuild numbers existing rows in their
+            // clustered (insertion) order, which is the order each option list was saved in
+            jdbcTemplate.execute(
+                "ALTER TABLE question_options ADD COLUMN option_seq BIGINT NOT NULL AUTO_INCREMENT UNIQUE");
+            log.info("Added option_seq to question_options");
+        }
+    }
+
+    private int copyTableToInline() {
+        List<Object[]> pending = new ArrayList<>(BATCH_SIZE);
+        List<String> options = new ArrayList<>();
+        long[] current = { -1 };
+        int[] migrated = { 0 };
+
+        streamingJdbc.query(
+            "SELECT o.question_id, o.option_value FROM question_options o " +
+            "JOIN questions q ON q.id = o.question_id WHERE q.options_data IS NULL " +
+            "ORDER BY o.question_id, o.option_seq",
+            rs -> {
+                long questionId = rs.getLong(1);
+                if (questionId != current[0] && current[0] != -1) {
+                    pending.add(new Object[] { converter.convertToDatabaseColumn(options), current[0] });
+                    options.clear();
+                    if (pending.size() == BATCH_SIZE) {
+                        migrated[0] += flush(UPDATE_INLINE, pending);
+                    }
+                }
+                current[0] = questionId;
+                options.add(rs.getString(2));
+            });
+        if (current[0] != -1) {
+            pending.add(new Object[] { converter.convertToDatabaseColumn(options), current[0] });
+        }
+        return migrated[0] + flush(UPDATE_INLINE, pending);
+    }
+
+    /**
+     * Write question_options rows for questions that only have options_data,
+     * e.g. ones created in INLINE mode or by a bulk import. Used in TABLE mode.
+     * @return Number of questions copied
+     */
+    public synchronized int copyInlineToTable() {
+        List<Object[]> pending = new ArrayList<>(BATCH_SIZE);
+        int[] copied = { 0 };
+        streamingJdbc.query(
+            "SELECT q.id, q.options_data FROM questions q WHERE q.options_data IS NOT NULL " +
+            "AND NOT EXISTS (SELECT 1 FROM question_options o WHERE o.question_id = q.id) ORDER BY q.id",
+            rs -> {
+                List<String> options = converter.convertToEntityAttribute(rs.getString(2));
+                if (options == null || options.isEmpty()) {
+                    return;
+                }
+                long questionId = rs.getLong(1);
+                for (String option : options) {
+                    pending.add(new Object[] { questionId, option }); // option_seq follows list order
+                }
+                copied[0]++;
+                if (pending.size() >= BATCH_SIZE) {
+                    flush(INSERT_TABLE_ROW, pending);
+                }
+            });
+        flush(INSERT_TABLE_ROW, pending);
+        return copied[0];
+    }
+
+    private int flush(String sql, List<Object[]> pending) {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(sql, pending);
+        int count = pending.size();
+        pending.clear();
+        return count;
+    }
+}
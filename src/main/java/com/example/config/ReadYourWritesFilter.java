@@ -0,0 +1,62 @@
+package com.example.config;
+
+import com.example.security.AuthPrincipal;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Read-your-writes for replica routing: after a user's write request, that
+ * user's reads go to the primary for a short window, so they see their own
+ * change even if the replica has not caught up. Users are identified by
+ * their token principal, or by client address without one.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final long pinMillis;
+    private final ConcurrentMap<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+    public ReadYourWritesFilter(long pinMillis) {
+        this.pinMillis = pinMillis;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        String user = userKey(request);
+        boolean write = !"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())
+            && !"OPTIONS".equals(request.getMethod());
+        Long until = pinnedUntil.get(user);
+        if (write || (until != null && until > System.currentTimeMillis())) {
+            ReplicaRoutingDataSource.pinToPrimary();
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.clearPin();
+            if (write) {
+                pinnedUntil.put(user, System.currentTimeMillis() + pinMillis);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        pinnedUntil.values().removeIf(until -> until <= now);
+    }
+
+    private static String userKey(HttpServletRequest request) {
+        AuthPrincipal principal = AuthPrincipal.from(request);
+        return principal != null
+            ? principal.getRole() + ":" + principal.getId()
+            : "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Polls the replica's replication delay. Reads are only routed to it while
+ * the last check succeeded and the delay was within the configured limit.
+ *
+ * With an empty lag query (e.g. a local embedded database standing in for
+ * the replica) only connectivity is checked.
+ */
+public class ReplicaLagMonitor {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+    private volatile boolean usable;
+    private volatile long lagSeconds = -1;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, long maxLagSeconds) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    // Seconds behind the primary at the last check, -1 if unknown
+    public long getLagSeconds() {
+        return lagSeconds;
+    }
+
+    @Scheduled(fixedDelayString = "${skillfit.datasource.replica.lag-check-ms:2000}")
+    public void check() {
+        boolean wasUsable = usable;
+        try (Connection connection = replica.getConnection()) {
+            if (lagQuery == null || lagQuery.isBlank()) {
+                lagSeconds = 0;
+                usable = connection.isValid(1);
+            } else {
+                lagSeconds = queryLag(connection);
+                usable = lagSeconds >= 0 && lagSeconds <= maxLagSeconds;
+            }
+        } catch (SQLException e) {
+            lagSeconds = -1;
+            usable = false;
+        }
+        if (wasUsable != usable) {
+            if (usable) {
+                log.info("Replica available (lag {} s); routing read-only transactions to it", lagSeconds);
+            } else {
+                log.warn("Replica unavailable or lagging (lag {} s); routing all reads to the primary", lagSeconds);
+            }
+        }
+    }
+
+    // MySQL reports NULL when replication is stopped, which counts as unusable
+    private long queryLag(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(lagQuery)) {
+            if (!rs.next()) {
+                return -1;
+            }
+            for (String column : new String[] { "Seconds_Behind_Source", "Seconds_Behind_Master" }) {
+                try {
+                    long lag = rs.getLong(column);
+                    return rs.wasNull() ? -1 : lag;
+                } catch (SQLException e) {
+                    // column name depends on the server version; try the next one
+                }
+            }
+            long lag = rs.getLong(1);
+            return rs.wasNull() ? -1 : lag;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.HikariCheckpointRestoreLifecycle;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Primary/replica routing, active only when skillfit.datasource.replica.url
+ * is set. Read-only transactions (@Transactional(readOnly = true)) use the
+ * replica pool; everything else, and every read while the replica lags,
+ * uses the primary configured under spring.datasource.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "skillfit.datasource.replica", name = "url")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("skillfit.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${skillfit.datasource.replica.url}") String url,
+                                              @Value("${skillfit.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${skillfit.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class)
+            .url(url).username(username).password(password).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    // Boot only adds these for the pool it creates itself; suspend both pools around a CRaC checkpoint
+    @Bean
+    public HikariCheckpointRestoreLifecycle primaryCheckpointRestoreLifecycle(
+            @Qualifier("primaryDataSource") DataSource primary) {
+        return new HikariCheckpointRestoreLifecycle(primary);
+    }
+
+    @Bean
+    public HikariCheckpointRestoreLifecycle replicaCheckpointRestoreLifecycle(
+            @Qualifier("replicaDataSource") DataSource replica) {
+        return new HikariCheckpointRestoreLifecycle(replica);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+                                               @Value("${skillfit.datasource.replica.lag-query:SHOW REPLICA STATUS}") String lagQuery,
+                                               @Value("${skillfit.datasource.replica.max-lag-seconds:5}") long maxLagSeconds) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, lagQuery, maxLagSeconds);
+        monitor.check(); // route reads to the replica from the first request if it is healthy
+        return monitor;
+    }
+
+    // The DataSource everything else (JPA, JdbcTemplate) uses
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor lagMonitor) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(lagMonitor);
+        routing.setTargetDataSources(Map.of(
+            ReplicaRoutingDataSource.PRIMARY, primary,
+            ReplicaRoutingDataSource.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    // A bean of its own so its @Scheduled purge runs
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(
+            @Value("${skillfit.datasource.replica.read-your-writes-ms:5000}") long pinMillis) {
+        return new ReadYourWritesFilter(pinMillis);
+    }
+
+    // Runs after TokenAuthenticationFilter so the principal is known
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilterRegistration(ReadYourWritesFilter filter) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
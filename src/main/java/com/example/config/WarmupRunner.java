@@ -0,0 +1,37 @@
+package com.example.config;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Warms the application up after DataInitializer and before traffic.
+ * Boot only reports readiness ACCEPTING_TRAFFIC once all runners have
+ * returned, so /actuator/health/readiness stays down until this finishes
+ * and load balancers keep requests away from a cold instance.
+ */
+@Component
+@Order(2)
+@ConditionalOnProperty(name = "skillfit.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupRunner implements ApplicationRunner {
+
+    private final ApplicationWarmup warmup;
+    private final ApplicationEventPublisher publisher;
+
+    public WarmupRunner(ApplicationWarmup warmup, ApplicationEventPublisher publisher) {
+        this.warmup = warmup;
+        this.publisher = publisher;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // Explicit, so probes never see an unknown state while the web server is already up
+        AvailabilityChangeEvent.publish(publisher, this, ReadinessState.REFUSING_TRAFFIC);
+        warmup.run();
+    }
+}
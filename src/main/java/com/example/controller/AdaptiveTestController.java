@@ -0,0 +1,58 @@
+package com.example.controller;
+
+import com.example.security.AuthPrincipal;
+import com.example.service.AdaptiveTestService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/test/adaptive")
+@CrossOrigin(origins = "http://localhost:3000")
+public class AdaptiveTestController {
+    private final AdaptiveTestService adaptiveTestService;
+
+    public AdaptiveTestController(AdaptiveTestService adaptiveTestService) {
+        this.adaptiveTestService = adaptiveTestService;
+    }
+
+    // Start an adaptive test: returns sessionId and the first question
+    @PostMapping("/start")
+    public Map<String, Object> start(@RequestParam Long studentId,
+                                     @RequestParam(required = false) Long jobId,
+                                     HttpServletRequest request) {
+        AuthPrincipal.requireStudent(request, studentId);
+        return adaptiveTestService.start(studentId, jobId);
+    }
+
+    // Answer the current question: returns the next question or the final result
+    @PostMapping("/{sessionId}/answer")
+    public Map<String, Object> answer(@PathVariable String sessionId, @RequestBody Map<String, Object> req,
+                                      HttpServletRequest request) {
+        Long studentId = AuthPrincipal.requireRole(request, AuthPrincipal.STUDENT).getId();
+        if (req.get("questionId") == null) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "questionId is required");
+            return error;
+        }
+        Long questionId;
+        try {
+            questionId = Long.parseLong(req.get("questionId").toString());
+        } catch (NumberFormatException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "Invalid questionId");
+            return error;
+        }
+        String answer = req.get("answer") != null ? req.get("answer").toString() : null;
+        return adaptiveTestService.answer(sessionId, studentId, questionId, answer);
+    }
+
+    // Current question and ability estimate of a session
+    @GetMapping("/{sessionId}")
+    public Map<String, Object> status(@PathVariable String sessionId, HttpServletRequest request) {
+        Long studentId = AuthPrincipal.requireRole(request, AuthPrincipal.STUDENT).getId();
+        return adaptiveTestService.status(sessionId, studentId);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.controller;
+
+import com.example.security.AdminAuth;
+import com.example.security.AuthPrincipal;
+import com.example.service.AnalyticsService;
+import com.example.service.ItemAnalysisService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/recruiter/analytics")
+@CrossOrigin(origins = "http://localhost:3000")
+public class AnalyticsController {
+    private final AnalyticsService analyticsService;
+    private final ItemAnalysisService itemAnalysisService;
+    private final AdminAuth adminAuth;
+
+    public AnalyticsController(AnalyticsService analyticsService, ItemAnalysisService itemAnalysisService,
+                               AdminAuth adminAuth) {
+        this.analyticsService = analyticsService;
+        this.itemAnalysisService = itemAnalysisService;
+        this.adminAuth = adminAuth;
+    }
+
+    // Score distribution, pass rates, tests per day and question difficulty (default: last 30 days)
+    @GetMapping("/{recruiterId}")
+    public Map<String, Object> getAnalytics(@PathVariable Long recruiterId,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                            HttpServletRequest request) {
+        AuthPrincipal.requireRecruiter(request, recruiterId);
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        return analyticsService.getRecruiterAnalytics(recruiterId, start, end);
+    }
+
+    // Item analysis (difficulty, discrimination, distractors) from stored per-question answers
+    @GetMapping("/{recruiterId}/items")
+    public Map<String, Object> getItemAnalysis(@PathVariable Long recruiterId, HttpServletRequest request) {
+        AuthPrincipal.requireRecruiter(request, recruiterId);
+        Map<String, Object> res = new HashMap<>();
+        res.put("recruiterId", recruiterId);
+        res.put("items", itemAnalysisService.analyseRecruiterItems(recruiterId));
+        return res;
+    }
+
+    // Regenerate the rollups and student summaries from the full results history (admin only)
+    @PostMapping("/rebuild")
+    public Map<String, Object> rebuild(HttpServletRequest request) {
+        adminAuth.require(request);
+        Map<String, Object> res = analyticsService.rebuildAll();
+        res.put("message", "Analytics rollups rebuilt");
+        res.put("success", true);
+        return res;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.controller;
+
+import com.example.security.AuthPrincipal;
+import com.example.service.CampaignService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/api/recruiter/campaigns")
+@CrossOrigin(origins = "http://localhost:3000")
+public class CampaignController {
+    private final CampaignService campaignService;
+
+    public CampaignController(CampaignService campaignService) {
+        this.campaignService = campaignService;
+    }
+
+    // Start a bulk messaging campaign from the signed-in recruiter
+    @PostMapping
+    public Map<String, Object> startCampaign(@RequestBody Map<String, Object> req, HttpServletRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        Long recruiterId = AuthPrincipal.requireRole(request, AuthPrincipal.RECRUITER).getId();
+        
+        try {
+            if (req.get("message") == null) {
+                response.put("error", "message is required");
+                response.put("success", false);
+                return response;
+            }
+            
+            String subject = req.get("subject") != null ? req.get("subject").toString() : "Job Opportunity";
+            String template = req.get("message").toString();
+            boolean notifyByEmail = Boolean.parseBoolean(String.valueOf(req.get("notifyByEmail")));
+            
+            CampaignService.CandidateFilter filter = new CampaignService.CandidateFilter();
+            if (req.get("filter") instanceof Map<?, ?> f) {
+                if (f.get("level") != null && !f.get("level").toString().isEmpty()) {
+                    filter.level = f.get("level").toString();
+                }
+                if (f.get("minScore") != null) {
+                    filter.minScore = Integer.parseInt(f.get("minScore").toString());
+                }
+                if (f.get("maxScore") != null) {
+                    filter.maxScore = Integer.parseInt(f.get("maxScore").toString());
+                }
+                filter.onlyMyCandidates = Boolean.parseBoolean(String.valueOf(f.get("onlyMyCandidates")));
+            }
+            
+            Optional<CampaignService.CampaignStatus> status =
+                campaignService.start(recruiterId, subject, template, filter, notifyByEmail);
+            if (!status.isPresent()) {
+                response.put("error", "Recruiter not found");
+                response.put("success", false);
+                return response;
+            }
+            
+            response.putAll(status.get().toMap());
+            response.put("success", true);
+            return response;
+            
+        } catch (NumberFormatException e) {
+            response.put("error", "minScore and maxScore must be numbers");
+            response.put("success", false);
+            return response;
+        } catch (RejectedExecutionException e) {
+            response.put("error", "Too many campaigns running, please retry later");
+            response.put("success", false);
+            return response;
+        }
+    }
+
+    // Campaign progress; other recruiters' campaigns are reported as not found
+    @GetMapping("/{campaignId}")
+    public Map<String, Object> getCampaign(@PathVariable String campaignId, HttpServletRequest request) {
+        Long recruiterId = AuthPrincipal.requireRole(request, AuthPrincipal.RECRUITER).getId();
+        Optional<CampaignService.CampaignStatus> status = campaignService.getStatus(campaignId);
+        if (status.isPresent() && recruiterId.equals(status.get().getRecruiterId())) {
+            return status.get().toMap();
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", "Campaign not found");
+        return response;
+    }
+}
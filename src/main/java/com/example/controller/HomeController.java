@@ -1,5 +1,6 @@
 package com.example.controller;
 
+import com.example.health.DatabaseHealthIndicator;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -8,17 +9,24 @@ import java.util.Map;
 
 @RestController
 public class HomeController {
+    private final DatabaseHealthIndicator databaseHealth;
+
+    public HomeController(DatabaseHealthIndicator databaseHealth) {
+        this.databaseHealth = databaseHealth;
+    }
 
     @GetMapping("/")
     public String home() {
         return "🏠 Welcome to SkillFit Backend!";
     }
 
+    // Public liveness summary; error counts are in the skillfit.errors metric
     @GetMapping("/health")
     public Map<String, Object> health() {
         Map<String, Object> status = new HashMap<>();
         status.put("status", "UP");
         status.put("message", "Backend is running");
+        status.put("database", databaseHealth.health().getStatus().getCode());
         return status;
     }
 }
@@ -1,14 +1,24 @@
 package com.example.controller;
 
+import com.example.health.DatabaseHealthIndicator;
 import com.example.model.Job;
 import com.example.model.Recruiter;
 import com.example.repository.JobRepository;
 import com.example.repository.RecruiterRepository;
-import org.springframework.http.HttpStatus;
+import com.example.security.AuthPrincipal;
+import com.example.service.FieldSelectionService;
+import com.example.service.JobImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,15 +29,26 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/jobs")
 @CrossOrigin(origins = "http://localhost:3000")
 public class JobController {
+    private static final Logger log = LoggerFactory.getLogger(JobController.class);
+
     private final JobRepository jobRepo;
     private final RecruiterRepository recruiterRepo;
+    private final JobImportService jobImportService;
+    private final DatabaseHealthIndicator databaseHealth;
+    private final FieldSelectionService fieldSelection;
 
-    public JobController(JobRepository jobRepo, RecruiterRepository recruiterRepo) { 
+    public JobController(JobRepository jobRepo, RecruiterRepository recruiterRepo,
+                         JobImportService jobImportService, DatabaseHealthIndicator databaseHealth,
+                         FieldSelectionService fieldSelection) {
         this.jobRepo = jobRepo;
         this.recruiterRepo = recruiterRepo;
+        this.jobImportService = jobImportService;
+        this.databaseHealth = databaseHealth;
+        this.fieldSelection = fieldSelection;
     }
 
     @GetMapping("/recommend/{level}")
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> recommendByLevel(@PathVariable String level) {
         List<Job> jobs = jobRepo.findByLevel(level);
         return jobs.stream().map(job -> {
@@ -56,8 +77,13 @@ public class JobController {
     }
 
     // Get all jobs with company name
+    // ?fields=id,role,companyName returns only those fields and selects only their columns
     @GetMapping("/all")
-    public List<Map<String, Object>> getAllJobs() {
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllJobs(@RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return fieldSelection.jobs(FieldSelectionService.parse(fields, FieldSelectionService.JOB_FIELDS));
+        }
         List<Job> jobs = jobRepo.findAll();
         return jobs.stream().map(job -> {
             Map<String, Object> jobData = new HashMap<>();
@@ -86,6 +112,7 @@ public class JobController {
     
     // Get jobs by recruiter ID with company name
     @GetMapping("/by-recruiter/{recruiterId}")
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getJobsByRecruiter(@PathVariable Long recruiterId) {
         List<Job> jobs = jobRepo.findByRecruiterId(recruiterId);
         Optional<Recruiter> recruiterOpt = recruiterRepo.findById(recruiterId);
@@ -111,197 +138,169 @@ public class JobController {
         Map<String, Object> res = new HashMap<>();
         res.put("message", "Job Controller is working!");
         res.put("endpoints", List.of(
-            "GET /api/jobs/all - Get all jobs",
+            "GET /api/jobs/all?fields=id,role,companyName - Get all jobs (optionally only some fields)",
             "GET /api/jobs/recommend/{level} - Get jobs by level",
             "POST /api/jobs/create - Create a new job",
+            "POST /api/jobs/bulk - Create or update jobs by externalKey (JSON array or NDJSON)",
             "PUT /api/jobs/update/{id} - Update a job",
             "DELETE /api/jobs/delete/{id} - Delete a job"
         ));
         return res;
     }
 
-    // Test database connection
+    // Test database connection (cached ping, no table scan)
     @GetMapping("/test-db")
     public Map<String, Object> testDatabase() {
         Map<String, Object> res = new HashMap<>();
-        try {
-            long count = jobRepo.count();
+        Health health = databaseHealth.health();
+        if (Status.UP.equals(health.getStatus())) {
             res.put("message", "Database connection successful!");
-            res.put("jobCount", count);
             res.put("status", "OK");
-        } catch (Exception e) {
-            res.put("message", "Database error: " + e.getMessage());
-            res.put("error", e.getClass().getSimpleName());
+        } else {
+            res.put("message", "Database is unavailable");
+            res.put("error", "DATABASE_UNAVAILABLE");
             res.put("status", "ERROR");
-            e.printStackTrace();
         }
         return res;
     }
 
-    // Create a new job
+    // Create a new job owned by the signed-in recruiter
     @PostMapping("/create")
     @Transactional
-    public ResponseEntity<Map<String, Object>> createJob(@RequestBody(required = false) Map<String, Object> req) {
+    public ResponseEntity<Map<String, Object>> createJob(@RequestBody(required = false) Map<String, Object> req,
+                                                         HttpServletRequest request) {
+        Long recruiterId = AuthPrincipal.requireRole(request, AuthPrincipal.RECRUITER).getId();
         Map<String, Object> res = new HashMap<>();
         
+        if (req == null) {
+            res.put("message", "Request body is required");
+            res.put("error", "INVALID_REQUEST");
+            return ResponseEntity.badRequest().body(res);
+        }
+        
+        String role = req.get("role") != null ? req.get("role").toString() : null;
+        String level = req.get("level") != null ? req.get("level").toString() : null;
+        String description = req.get("description") != null ? req.get("description").toString() : null;
+        
+        if (role == null || role.trim().isEmpty()) {
+            res.put("message", "Job role is required");
+            res.put("error", "VALIDATION_ERROR");
+            return ResponseEntity.badRequest().body(res);
+        }
+        
+        if (level == null || level.trim().isEmpty()) {
+            res.put("message", "Job level is required");
+            res.put("error", "VALIDATION_ERROR");
+            return ResponseEntity.badRequest().body(res);
+        }
+        
+        if (description == null || description.trim().isEmpty()) {
+            res.put("message", "Job description is required");
+            res.put("error", "VALIDATION_ERROR");
+            return ResponseEntity.badRequest().body(res);
+        }
+        
+        Job job = new Job();
+        job.setRole(role.trim());
+        job.setLevel(level.trim());
+        // Clean description - remove leading/trailing quotes if present
+        String cleanDescription = description.trim();
+        if (cleanDescription.startsWith("\"") && cleanDescription.endsWith("\"")) {
+            cleanDescription = cleanDescription.substring(1, cleanDescription.length() - 1);
+        }
+        job.setDescription(cleanDescription);
+        job.setRecruiterId(recruiterId);
+        
+        Job saved = jobRepo.save(job);
+        log.info("Created job {} for recruiter {}", saved.getId(), recruiterId);
+        
+        res.put("message", "Job created successfully!");
+        res.put("jobId", saved.getId());
+        return ResponseEntity.ok(res);
+    }
+
+    // Bulk create/update the signed-in recruiter's jobs keyed by externalKey; body is a JSON array or NDJSON
+    @PostMapping(value = "/bulk", consumes = { "application/json", "application/x-ndjson" })
+    public ResponseEntity<Map<String, Object>> bulkUpsertJobs(InputStream body, HttpServletRequest request) {
+        Long recruiterId = AuthPrincipal.requireRole(request, AuthPrincipal.RECRUITER).getId();
+        Map<String, Object> res = new HashMap<>();
         try {
-            System.out.println("=== RECEIVED CREATE JOB REQUEST ===");
-            System.out.println("Request body: " + req);
-            System.out.println("Request body type: " + (req != null ? req.getClass().getName() : "null"));
-            
-            if (req == null) {
-                System.err.println("ERROR: Request body is null!");
-                res.put("message", "Request body is required");
-                res.put("error", "INVALID_REQUEST");
-                return ResponseEntity.badRequest().body(res);
-            }
-            
-            String role = req.get("role") != null ? req.get("role").toString() : null;
-            String level = req.get("level") != null ? req.get("level").toString() : null;
-            String description = req.get("description") != null ? req.get("description").toString() : null;
-            Long recruiterId = null;
-            if (req.get("recruiterId") != null) {
-                try {
-                    recruiterId = Long.parseLong(req.get("recruiterId").toString());
-                } catch (NumberFormatException e) {
-                    System.err.println("Invalid recruiterId format: " + req.get("recruiterId"));
-                }
-            }
-            
-            System.out.println("Extracted values - Role: " + role + ", Level: " + level + ", Description length: " + (description != null ? description.length() : 0) + ", RecruiterId: " + recruiterId);
-            
-            if (role == null || role.trim().isEmpty()) {
-                res.put("message", "Job role is required");
-                res.put("error", "VALIDATION_ERROR");
-                return ResponseEntity.badRequest().body(res);
-            }
-            
-            if (level == null || level.trim().isEmpty()) {
-                res.put("message", "Job level is required");
-                res.put("error", "VALIDATION_ERROR");
-                return ResponseEntity.badRequest().body(res);
-            }
-            
-            if (description == null || description.trim().isEmpty()) {
-                res.put("message", "Job description is required");
-                res.put("error", "VALIDATION_ERROR");
-                return ResponseEntity.badRequest().body(res);
-            }
-            
-            Job job = new Job();
-            job.setRole(role.trim());
-            job.setLevel(level.trim());
-            // Clean description - remove leading/trailing quotes if present
-            String cleanDescription = description.trim();
-            if (cleanDescription.startsWith("\"") && cleanDescription.endsWith("\"")) {
-                cleanDescription = cleanDescription.substring(1, cleanDescription.length() - 1);
-            }
-            job.setDescription(cleanDescription);
-            if (recruiterId != null) {
-                job.setRecruiterId(recruiterId);
-            }
-            
-            System.out.println("Attempting to save job to database...");
-            System.out.println("Job object: role=" + job.getRole() + ", level=" + job.getLevel() + ", description length=" + (job.getDescription() != null ? job.getDescription().length() : 0));
-            
-            Job saved = jobRepo.save(job);
-            
-            System.out.println("Job saved successfully with ID: " + saved.getId());
-            
-            res.put("message", "Job created successfully!");
-            res.put("jobId", saved.getId());
+            res.putAll(jobImportService.upsertJobs(body, recruiterId));
+            res.put("success", true);
             return ResponseEntity.ok(res);
-            
-        } catch (org.springframework.dao.DataAccessException e) {
-            res.put("message", "Database error: " + e.getMessage());
-            res.put("error", "DATABASE_ERROR");
-            res.put("details", e.getClass().getSimpleName());
-            res.put("rootCause", e.getRootCause() != null ? e.getRootCause().getMessage() : "No root cause");
-            
-            System.err.println("=== DATABASE ERROR CREATING JOB ===");
-            System.err.println("Exception: " + e.getClass().getName());
-            System.err.println("Message: " + e.getMessage());
-            if (e.getRootCause() != null) {
-                System.err.println("Root Cause: " + e.getRootCause().getMessage());
-            }
-            e.printStackTrace();
-            System.err.println("===================================");
-            
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(res);
-        } catch (Exception e) {
-            res.put("message", "Error creating job: " + e.getMessage());
-            res.put("error", "SERVER_ERROR");
-            res.put("details", e.getClass().getSimpleName());
-            res.put("cause", e.getCause() != null ? e.getCause().getMessage() : "No cause");
-            
-            // Log full stack trace
-            System.err.println("=== ERROR CREATING JOB ===");
-            System.err.println("Exception Type: " + e.getClass().getName());
-            System.err.println("Exception Message: " + e.getMessage());
-            e.printStackTrace();
-            System.err.println("==========================");
-            
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(res);
+        } catch (IllegalArgumentException e) {
+            res.put("success", false);
+            res.put("message", "Could not read jobs: " + e.getMessage());
+            res.put("error", "INVALID_REQUEST");
+            return ResponseEntity.badRequest().body(res);
+        } catch (IOException e) {
+            // Parser messages quote the input and stream internals; keep them in the log
+            log.debug("Could not read bulk jobs: {}", e.getMessage());
+            res.put("success", false);
+            res.put("message", "Could not read jobs: body is not a JSON array or NDJSON");
+            res.put("error", "INVALID_REQUEST");
+            return ResponseEntity.badRequest().body(res);
         }
     }
 
     // Update a job
     @PutMapping("/update/{id}")
-    public Map<String, Object> updateJob(@PathVariable Long id, @RequestBody Map<String, Object> req) {
+    public Map<String, Object> updateJob(@PathVariable Long id, @RequestBody Map<String, Object> req,
+                                         HttpServletRequest request) {
+        AuthPrincipal.requireRole(request, AuthPrincipal.RECRUITER);
         Map<String, Object> res = new java.util.HashMap<>();
         
-        try {
-            if (req == null) {
-                res.put("message", "Request body is required");
-                res.put("error", "INVALID_REQUEST");
-                return res;
+        if (req == null) {
+            res.put("message", "Request body is required");
+            res.put("error", "INVALID_REQUEST");
+            return res;
+        }
+        
+        Optional<Job> jobOpt = jobRepo.findById(id);
+        
+        if (jobOpt.isPresent()) {
+            Job job = jobOpt.get();
+            requireOwner(request, job);
+            if (req.containsKey("role") && req.get("role") != null) {
+                job.setRole(req.get("role").toString().trim());
             }
-            
-            Optional<Job> jobOpt = jobRepo.findById(id);
-            
-            if (jobOpt.isPresent()) {
-                Job job = jobOpt.get();
-                if (req.containsKey("role") && req.get("role") != null) {
-                    job.setRole(req.get("role").toString().trim());
-                }
-                if (req.containsKey("level") && req.get("level") != null) {
-                    job.setLevel(req.get("level").toString().trim());
-                }
-                if (req.containsKey("description") && req.get("description") != null) {
-                    job.setDescription(req.get("description").toString().trim());
-                }
-                if (req.containsKey("recruiterId") && req.get("recruiterId") != null) {
-                    try {
-                        job.setRecruiterId(Long.parseLong(req.get("recruiterId").toString()));
-                    } catch (NumberFormatException e) {
-                        // Ignore invalid recruiterId
-                    }
-                }
-                
-                jobRepo.save(job);
-                res.put("message", "Job updated successfully!");
-            } else {
-                res.put("message", "Job not found!");
-                res.put("error", "NOT_FOUND");
+            if (req.containsKey("level") && req.get("level") != null) {
+                job.setLevel(req.get("level").toString().trim());
             }
-        } catch (Exception e) {
-            res.put("message", "Error updating job: " + e.getMessage());
-            res.put("error", "SERVER_ERROR");
-            e.printStackTrace();
+            if (req.containsKey("description") && req.get("description") != null) {
+                job.setDescription(req.get("description").toString().trim());
+            }
+            // recruiterId is not taken from the body: a job stays with its owner
+            
+            jobRepo.save(job);
+            res.put("message", "Job updated successfully!");
+        } else {
+            res.put("message", "Job not found!");
+            res.put("error", "NOT_FOUND");
         }
         return res;
     }
 
     // Delete a job
     @DeleteMapping("/delete/{id}")
-    public Map<String, Object> deleteJob(@PathVariable Long id) {
+    public Map<String, Object> deleteJob(@PathVariable Long id, HttpServletRequest request) {
+        AuthPrincipal.requireRole(request, AuthPrincipal.RECRUITER);
         Map<String, Object> res = new java.util.HashMap<>();
-        if (jobRepo.existsById(id)) {
-            jobRepo.deleteById(id);
+        Optional<Job> jobOpt = jobRepo.findById(id);
+        if (jobOpt.isPresent()) {
+            requireOwner(request, jobOpt.get());
+            jobRepo.delete(jobOpt.get());
             res.put("message", "Job deleted successfully!");
         } else {
             res.put("message", "Job not found!");
         }
         return res;
     }
+
+    // Jobs without an owner (created before ownership was recorded) can be changed by any recruiter
+    private static void requireOwner(HttpServletRequest request, Job job) {
+        if (job.getRecruiterId() != null) {
+            AuthPrincipal.requireRecruiter(request, job.getRecruiterId());
+        }
+    }
 }
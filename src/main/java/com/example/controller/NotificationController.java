@@ -0,0 +1,46 @@
+package com.example.controller;
+
+import com.example.security.AuthPrincipal;
+import com.example.service.NotificationService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/notifications")
+@CrossOrigin(origins = "http://localhost:3000")
+public class NotificationController {
+    private final NotificationService notificationService;
+
+    public NotificationController(NotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+
+    // Event stream for a student: "message" and "result" events. EventSource cannot send
+    // headers, so the token may also come as ?access_token= (see TokenAuthenticationFilter)
+    @GetMapping(value = "/student/{studentId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter studentStream(@PathVariable Long studentId, HttpServletRequest request) {
+        AuthPrincipal.requireStudent(request, studentId);
+        return notificationService.subscribe(NotificationService.STUDENT, studentId);
+    }
+
+    // Event stream for a recruiter: "result" events for tests on their questions/jobs
+    @GetMapping(value = "/recruiter/{recruiterId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter recruiterStream(@PathVariable Long recruiterId, HttpServletRequest request) {
+        AuthPrincipal.requireRecruiter(request, recruiterId);
+        return notificationService.subscribe(NotificationService.RECRUITER, recruiterId);
+    }
+
+    // Stream statistics
+    @GetMapping("/stats")
+    public Map<String, Object> stats() {
+        Map<String, Object> res = new HashMap<>();
+        res.put("openStreams", notificationService.getOpenStreams());
+        res.put("pendingEvents", notificationService.getPendingEvents());
+        return res;
+    }
+}
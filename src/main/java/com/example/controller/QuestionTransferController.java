@@ -0,0 +1,118 @@
+package com.example.controller;
+
+import com.example.security.AuthPrincipal;
+import com.example.service.QuestionTransferService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/test/questions")
+@CrossOrigin(origins = "http://localhost:3000")
+public class QuestionTransferController {
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final QuestionTransferService transferService;
+    private final ObjectMapper objectMapper;
+
+    public QuestionTransferController(QuestionTransferService transferService, ObjectMapper objectMapper) {
+        this.transferService = transferService;
+        this.objectMapper = objectMapper;
+    }
+
+    // Bulk import from a CSV or NDJSON file into the signed-in recruiter's questions;
+    // progress and per-row errors are streamed back as NDJSON
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StreamingResponseBody> importQuestions(@RequestParam("file") MultipartFile file,
+                                                                 @RequestParam(required = false) String format,
+                                                                 @RequestParam(required = false) Long jobId,
+                                                                 HttpServletRequest request) throws IOException {
+        Long recruiterId = AuthPrincipal.requireRole(request, AuthPrincipal.RECRUITER).getId();
+        String resolvedFormat = resolveFormat(format, file.getOriginalFilename());
+        InputStream in = file.getInputStream();
+
+        StreamingResponseBody body = out -> {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            QuestionTransferService.ImportListener listener = new QuestionTransferService.ImportListener() {
+                @Override
+                public void rowFailed(long row, String error) throws IOException {
+                    Map<String, Object> event = new HashMap<>();
+                    event.put("type", "error");
+                    event.put("row", row);
+                    event.put("message", error);
+                    writeEvent(writer, event);
+                }
+
+                @Override
+                public void progress(long rowsRead, long imported, long failed) throws IOException {
+                    Map<String, Object> event = new HashMap<>();
+                    event.put("type", "progress");
+                    event.put("rowsRead", rowsRead);
+                    event.put("imported", imported);
+                    event.put("failed", failed);
+                    writeEvent(writer, event);
+                }
+            };
+
+            Map<String, Object> event = new HashMap<>();
+            try (in) {
+                event.putAll(transferService.importQuestions(in, resolvedFormat, recruiterId, jobId, listener));
+                event.put("type", "done");
+                event.putIfAbsent("success", true); // false when a database error stopped the import
+            } catch (IllegalArgumentException e) {
+                event.put("type", "done");
+                event.put("success", false);
+                event.put("message", e.getMessage());
+            }
+            writeEvent(writer, event);
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    // Stream the active question bank out as NDJSON (default) or CSV
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportQuestions(@RequestParam(required = false) String format,
+                                                                 @RequestParam(required = false) Long recruiterId,
+                                                                 @RequestParam(required = false) Long jobId,
+                                                                 HttpServletRequest request) {
+        AuthPrincipal.requireRole(request, AuthPrincipal.RECRUITER); // exports include the answer keys
+        String resolvedFormat = QuestionTransferService.CSV.equalsIgnoreCase(format)
+            ? QuestionTransferService.CSV
+            : QuestionTransferService.NDJSON;
+        StreamingResponseBody body = out -> transferService.exportQuestions(recruiterId, jobId, resolvedFormat, out);
+        return ResponseEntity.ok()
+            .contentType(QuestionTransferService.CSV.equals(resolvedFormat) ? MediaType.parseMediaType("text/csv") : NDJSON)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"questions." + resolvedFormat + "\"")
+            .body(body);
+    }
+
+    private static String resolveFormat(String format, String filename) {
+        if (format != null && !format.isBlank()) {
+            return format.trim().toLowerCase(Locale.ROOT);
+        }
+        if (filename != null && filename.toLowerCase(Locale.ROOT).endsWith(".csv")) {
+            return QuestionTransferService.CSV;
+        }
+        return QuestionTransferService.NDJSON;
+    }
+
+    private void writeEvent(Writer writer, Map<String, Object> event) throws IOException {
+        writer.write(objectMapper.writeValueAsString(event));
+        writer.write('\n');
+        writer.flush();
+    }
+}
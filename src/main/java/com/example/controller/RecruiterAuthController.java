@@ -1,18 +1,31 @@
 package com.example.controller;
 
+import com.example.exception.ApiException;
+import com.example.logging.ThrottledErrorLogger;
 import com.example.model.Recruiter;
 import com.example.repository.RecruiterRepository;
 import com.example.service.OtpService;
 import com.example.service.EmailService;
+import com.example.security.AuthPrincipal;
+import com.example.security.PasswordHashingService;
+import com.example.security.RateLimitService;
+import com.example.security.TokenService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/recruiter")
 @CrossOrigin(origins = "http://localhost:3000")
 public class RecruiterAuthController {
+    private static final Logger log = LoggerFactory.getLogger(RecruiterAuthController.class);
+    private static final ThrottledErrorLogger errorLog = new ThrottledErrorLogger(log);
 
     @Autowired
     private RecruiterRepository recruiterRepo;
@@ -22,13 +35,23 @@ public class RecruiterAuthController {
     
     @Autowired
     private EmailService emailService;
+    
+    @Autowired
+    private RateLimitService rateLimitService;
+    
+    @Autowired
+    private TokenService tokenService;
+    
+    @Autowired
+    private PasswordHashingService passwordHashingService;
 
-    // REGISTER - Send OTP to email
+    // REGISTER - Send OTP to email; the password is hashed on the hashing pool, not the request thread
     @PostMapping("/register")
-    public Map<String, Object> register(@RequestBody Map<String, String> req) {
+    public CompletableFuture<Map<String, Object>> register(@RequestBody Map<String, String> req, HttpServletRequest request) {
         Map<String, Object> res = new HashMap<>();
         
         String email = req.get("email");
+        rateLimitService.check(RateLimitService.REGISTER, request.getRemoteAddr(), email);
         String name = req.get("name");
         String password = req.get("password");
         
@@ -38,7 +61,7 @@ public class RecruiterAuthController {
             password == null || password.trim().isEmpty()) {
             res.put("message", "Email, name, and password are required!");
             res.put("success", false);
-            return res;
+            return CompletableFuture.completedFuture(res);
         }
         
         // Check if email already exists
@@ -46,31 +69,28 @@ public class RecruiterAuthController {
         if (existingRecruiter.isPresent()) {
             res.put("message", "Email already registered! Please login instead.");
             res.put("success", false);
-            return res;
+            return CompletableFuture.completedFuture(res);
         }
         
-        try {
+        // Only the hash is kept while the OTP is pending
+        return passwordHashingService.hash(password).thenApply(passwordHash -> {
             // Generate and send OTP
-            String otp = otpService.generateOtp(email, name, password);
-            emailService.sendOtpEmail(email, otp, name);
+            String otp = otpService.generateOtp(email, name, passwordHash);
+            sendOtp(email, otp, name);
             
             res.put("message", "OTP sent to your email. Please check your inbox and verify.");
             res.put("success", true);
-        } catch (Exception e) {
-            res.put("message", "Error sending OTP: " + e.getMessage());
-            res.put("success", false);
-            e.printStackTrace();
-        }
-        
-        return res;
+            return res;
+        });
     }
     
     // VERIFY OTP AND COMPLETE REGISTRATION
     @PostMapping("/verify-otp")
-    public Map<String, Object> verifyOtp(@RequestBody Map<String, String> req) {
+    public Map<String, Object> verifyOtp(@RequestBody Map<String, String> req, HttpServletRequest request) {
         Map<String, Object> res = new HashMap<>();
         
         String email = req.get("email");
+        rateLimitService.check(RateLimitService.VERIFY_OTP, request.getRemoteAddr(), email);
         String otp = req.get("otp");
         
         if (email == null || otp == null) {
@@ -81,9 +101,9 @@ public class RecruiterAuthController {
         
         // Get user data before verifying (verifyOtp removes the data)
         String name = otpService.getName(email);
-        String password = otpService.getPassword(email);
+        String passwordHash = otpService.getPassword(email);
         
-        if (name == null || password == null) {
+        if (name == null || passwordHash == null) {
             res.put("message", "OTP not found or expired. Please try registering again.");
             res.put("success", false);
             return res;
@@ -104,56 +124,75 @@ public class RecruiterAuthController {
             return res;
         }
         
-        try {
-            // Create and save recruiter
-            Recruiter r = new Recruiter();
-            r.setName(name);
-            r.setEmail(email);
-            r.setPassword(password);  // Later we'll encrypt it
+        // Create and save recruiter; database errors go to the exception handler
+        Recruiter r = new Recruiter();
+        r.setName(name);
+        r.setEmail(email);
+        r.setPassword(passwordHash);
 
-            Recruiter saved = recruiterRepo.save(r);
-            
-            // Send confirmation email
+        Recruiter saved = recruiterRepo.save(r);
+        
+        // Send confirmation email; the account exists either way
+        try {
             emailService.sendRegistrationConfirmation(email, name, "Recruiter");
-            
-            res.put("message", "Recruiter registration successful! Welcome to SkillFit!");
-            res.put("recruiterId", saved.getId());
-            res.put("name", saved.getName());
-            res.put("success", true);
         } catch (Exception e) {
-            res.put("message", "Error completing registration: " + e.getMessage());
-            res.put("success", false);
-            e.printStackTrace();
+            errorLog.error("Error sending registration confirmation", e);
         }
         
+        res.put("message", "Recruiter registration successful! Welcome to SkillFit!");
+        res.put("recruiterId", saved.getId());
+        res.put("name", saved.getName());
+        res.put("token", tokenService.issue(AuthPrincipal.RECRUITER, saved.getId()));
+        res.put("success", true);
         return res;
     }
 
-    // LOGIN
+    // LOGIN - password check runs on the hashing pool, not the request thread
     @PostMapping("/login")
-    public Map<String, Object> login(@RequestBody Map<String, String> req) {
+    public CompletableFuture<Map<String, Object>> login(@RequestBody Map<String, String> req, HttpServletRequest request) {
 
         String email = req.get("email");
+        rateLimitService.check(RateLimitService.LOGIN, request.getRemoteAddr(), email);
         String password = req.get("password");
 
         Optional<Recruiter> r = recruiterRepo.findByEmail(email);
+        String stored = r.map(Recruiter::getPassword).orElse(null);
 
-        Map<String, Object> res = new HashMap<>();
+        return passwordHashingService.verify(password, stored).thenApply(valid -> {
+            Map<String, Object> res = new HashMap<>();
+            if (valid) {
+                res.put("message", "Login successful!");
+                res.put("recruiterId", r.get().getId());
+                res.put("name", r.get().getName());
+                res.put("token", tokenService.issue(AuthPrincipal.RECRUITER, r.get().getId()));
+                if (passwordHashingService.needsRehash(stored)) {
+                    rehash(r.get().getId(), stored, password);
+                }
+            } else {
+                res.put("message", "Invalid credentials!");
+            }
+            return res;
+        });
+    }
 
-        if (r.isPresent() && r.get().getPassword().equals(password)) {
-            res.put("message", "Login successful!");
-            res.put("recruiterId", r.get().getId());
-            res.put("name", r.get().getName());
-        } else {
-            res.put("message", "Invalid credentials!");
+    // Upgrade a legacy plaintext or weaker hash in the background; login does not wait for it
+    private void rehash(Long recruiterId, String stored, String password) {
+        try {
+            passwordHashingService.hash(password)
+                .thenAccept(hash -> recruiterRepo.replacePassword(recruiterId, stored, hash))
+                .exceptionally(e -> {
+                    errorLog.error("Error rehashing password for recruiter {}", e, recruiterId);
+                    return null;
+                });
+        } catch (RuntimeException e) {
+            log.debug("Hashing pool busy; rehash of recruiter {} deferred to next login", recruiterId);
         }
-
-        return res;
     }
 
     // GET PROFILE
     @GetMapping("/profile/{id}")
-    public Map<String, Object> getProfile(@PathVariable Long id) {
+    public Map<String, Object> getProfile(@PathVariable Long id, HttpServletRequest request) {
+        AuthPrincipal.requireRecruiter(request, id);
         Map<String, Object> res = new HashMap<>();
         Optional<Recruiter> recruiterOpt = recruiterRepo.findById(id);
         
@@ -174,13 +213,27 @@ public class RecruiterAuthController {
         return res;
     }
 
-    // UPDATE PROFILE
+    // UPDATE PROFILE - a new password is hashed on the hashing pool before the changes are saved
     @PutMapping("/profile/{id}")
-    public Map<String, Object> updateProfile(@PathVariable Long id, @RequestBody Map<String, String> req) {
-        Map<String, Object> res = new HashMap<>();
+    public CompletableFuture<Map<String, Object>> updateProfile(@PathVariable Long id, @RequestBody Map<String, String> req,
+                                                                HttpServletRequest request) {
+        AuthPrincipal.requireRecruiter(request, id);
         Optional<Recruiter> recruiterOpt = recruiterRepo.findById(id);
         
-        if (recruiterOpt.isPresent()) {
+        if (recruiterOpt.isEmpty()) {
+            Map<String, Object> res = new HashMap<>();
+            res.put("message", "Recruiter not found!");
+            res.put("error", "NOT_FOUND");
+            return CompletableFuture.completedFuture(res);
+        }
+        
+        String password = req.get("password");
+        CompletableFuture<String> passwordHash = password != null && !password.trim().isEmpty()
+            ? passwordHashingService.hash(password.trim())
+            : CompletableFuture.completedFuture(null);
+        
+        return passwordHash.thenApply(hash -> {
+            Map<String, Object> res = new HashMap<>();
             Recruiter r = recruiterOpt.get();
             
             if (req.containsKey("name") && req.get("name") != null && !req.get("name").trim().isEmpty()) {
@@ -189,8 +242,8 @@ public class RecruiterAuthController {
             if (req.containsKey("email") && req.get("email") != null && !req.get("email").trim().isEmpty()) {
                 r.setEmail(req.get("email").trim());
             }
-            if (req.containsKey("password") && req.get("password") != null && !req.get("password").trim().isEmpty()) {
-                r.setPassword(req.get("password").trim());
+            if (hash != null) {
+                r.setPassword(hash);
             }
             if (req.containsKey("company") && req.get("company") != null) {
                 r.setCompany(req.get("company").trim());
@@ -210,11 +263,18 @@ public class RecruiterAuthController {
             res.put("company", r.getCompany());
             res.put("role", r.getRole());
             res.put("location", r.getLocation());
-        } else {
-            res.put("message", "Recruiter not found!");
-            res.put("error", "NOT_FOUND");
+            return res;
+        });
+    }
+
+    // Mail failures are logged here; the client only learns that sending failed
+    private void sendOtp(String email, String otp, String name) {
+        try {
+            emailService.sendOtpEmail(email, otp, name);
+        } catch (Exception e) {
+            errorLog.error("Error sending OTP", e);
+            throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "EMAIL_FAILED",
+                "Could not send the verification email, please try again later");
         }
-        
-        return res;
     }
 }
@@ -1,15 +1,26 @@
 package com.example.controller;
 
+import com.example.exception.ApiException;
 import com.example.model.Message;
-import com.example.model.Recruiter;
 import com.example.model.ResultEntity;
 import com.example.model.Student;
 import com.example.repository.MessageRepository;
 import com.example.repository.RecruiterRepository;
 import com.example.repository.ResultRepository;
 import com.example.repository.StudentRepository;
+import com.example.security.AuthPrincipal;
+import com.example.service.AssessmentHistoryService;
+import com.example.service.CandidateSearchService;
+import com.example.service.FieldSelectionService;
+import com.example.service.NotificationService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -22,18 +33,36 @@ public class RecruiterController {
     private final ResultRepository resultRepo;
     private final MessageRepository messageRepo;
     private final RecruiterRepository recruiterRepo;
+    private final NotificationService notificationService;
+    private final CandidateSearchService candidateSearch;
+    private final FieldSelectionService fieldSelection;
+    private final AssessmentHistoryService assessmentHistory;
 
     public RecruiterController(StudentRepository studentRepo, ResultRepository resultRepo, 
-                               MessageRepository messageRepo, RecruiterRepository recruiterRepo) {
+                               MessageRepository messageRepo, RecruiterRepository recruiterRepo,
+                               NotificationService notificationService, CandidateSearchService candidateSearch,
+                               FieldSelectionService fieldSelection, AssessmentHistoryService assessmentHistory) {
         this.studentRepo = studentRepo;
         this.resultRepo = resultRepo;
         this.messageRepo = messageRepo;
         this.recruiterRepo = recruiterRepo;
+        this.notificationService = notificationService;
+        this.candidateSearch = candidateSearch;
+        this.fieldSelection = fieldSelection;
+        this.assessmentHistory = assessmentHistory;
     }
 
     // Get all students with their latest results (filtered by recruiter if provided)
+    // ?fields=id,name,score returns only those fields and selects only their columns
     @GetMapping("/students")
-    public List<Map<String, Object>> getAllStudents(@RequestParam(required = false) Long recruiterId) {
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllStudents(@RequestParam(required = false) Long recruiterId,
+                                                    @RequestParam(required = false) String fields,
+                                                    HttpServletRequest request) {
+        AuthPrincipal.requireRole(request, AuthPrincipal.RECRUITER);
+        if (fields != null) {
+            return fieldSelection.students(FieldSelectionService.parse(fields, FieldSelectionService.STUDENT_FIELDS), recruiterId);
+        }
         List<Student> students = studentRepo.findAll();
         return students.stream().map(student -> {
             Map<String, Object> studentData = new HashMap<>();
@@ -66,10 +95,25 @@ public class RecruiterController {
         }).collect(Collectors.toList());
     }
 
+    // Search candidates by skills/keywords in resumes, name, college and degree, with level/score filters
+    @GetMapping("/students/search")
+    public Map<String, Object> searchStudents(@RequestParam(required = false) String q,
+                                              @RequestParam(required = false) String level,
+                                              @RequestParam(required = false) Integer minScore,
+                                              @RequestParam(required = false) Integer maxScore,
+                                              @RequestParam(defaultValue = "20") int limit,
+                                              HttpServletRequest request) throws IOException {
+        AuthPrincipal.requireRole(request, AuthPrincipal.RECRUITER);
+        return candidateSearch.search(q, level, minScore, maxScore, limit);
+    }
+
     // Get student details with all results (filtered by recruiter if provided)
     @GetMapping("/students/{id}")
+    @Transactional(readOnly = true)
     public Map<String, Object> getStudentDetails(@PathVariable Long id,
-                                                 @RequestParam(required = false) Long recruiterId) {
+                                                 @RequestParam(required = false) Long recruiterId,
+                                                 HttpServletRequest request) {
+        AuthPrincipal.requireRole(request, AuthPrincipal.RECRUITER);
         Optional<Student> studentOpt = studentRepo.findById(id);
         Map<String, Object> response = new HashMap<>();
         
@@ -105,54 +149,70 @@ public class RecruiterController {
         return response;
     }
 
-    // Send a message to a candidate
+    // Paginated result history of a student (filtered by recruiter if provided); pass nextCursor back as cursor
+    @GetMapping("/students/{id}/history")
+    public Map<String, Object> getStudentHistory(@PathVariable Long id,
+                                                 @RequestParam(required = false) Long recruiterId,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(defaultValue = "20") int limit,
+                                                 HttpServletRequest request) {
+        AuthPrincipal.requireRole(request, AuthPrincipal.RECRUITER);
+        return assessmentHistory.history(id, recruiterId, from, to, cursor, limit);
+    }
+
+    // Summary statistics of a student's results (filtered by recruiter if provided)
+    @GetMapping("/students/{id}/summary")
+    public Map<String, Object> getStudentSummary(@PathVariable Long id,
+                                                 @RequestParam(required = false) Long recruiterId,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                 HttpServletRequest request) {
+        AuthPrincipal.requireRole(request, AuthPrincipal.RECRUITER);
+        return assessmentHistory.summary(id, recruiterId, from, to);
+    }
+
+    // Send a message to a candidate; the sender is the signed-in recruiter
     @PostMapping("/message/send")
-    public Map<String, Object> sendMessage(@RequestBody Map<String, Object> req) {
+    public Map<String, Object> sendMessage(@RequestBody Map<String, Object> req, HttpServletRequest request) {
         Map<String, Object> response = new HashMap<>();
+        Long recruiterId = AuthPrincipal.requireRole(request, AuthPrincipal.RECRUITER).getId();
         
-        try {
-            Long recruiterId = Long.parseLong(req.get("recruiterId").toString());
-            Long studentId = Long.parseLong(req.get("studentId").toString());
-            String subject = req.get("subject") != null ? req.get("subject").toString() : "Job Opportunity";
-            String messageText = req.get("message").toString();
-            
-            Optional<Recruiter> recruiterOpt = recruiterRepo.findById(recruiterId);
-            Optional<Student> studentOpt = studentRepo.findById(studentId);
-            
-            if (!recruiterOpt.isPresent()) {
-                response.put("error", "Recruiter not found");
-                return response;
-            }
-            
-            if (!studentOpt.isPresent()) {
-                response.put("error", "Student not found");
-                return response;
-            }
-            
-            Message message = new Message();
-            message.setRecruiter(recruiterOpt.get());
-            message.setStudent(studentOpt.get());
-            message.setSubject(subject);
-            message.setMessage(messageText);
-            message.setSentAt(LocalDateTime.now());
-            
-            messageRepo.save(message);
-            
-            response.put("message", "Message sent successfully!");
-            response.put("success", true);
-            return response;
-            
-        } catch (Exception e) {
-            response.put("error", "Error sending message: " + e.getMessage());
-            response.put("success", false);
-            e.printStackTrace();
+        if (req.get("studentId") == null || req.get("message") == null) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "VALIDATION_ERROR", "studentId and message are required");
+        }
+        Long studentId = parseId(req.get("studentId"), "studentId");
+        String subject = req.get("subject") != null ? req.get("subject").toString() : "Job Opportunity";
+        String messageText = req.get("message").toString();
+        
+        Optional<Student> studentOpt = studentRepo.findById(studentId);
+        
+        if (!studentOpt.isPresent()) {
+            response.put("error", "Student not found");
             return response;
         }
+        
+        Message message = new Message();
+        message.setRecruiter(recruiterRepo.getReferenceById(recruiterId)); // the token proves the recruiter exists
+        message.setStudent(studentOpt.get());
+        message.setSubject(subject);
+        message.setMessage(messageText);
+        message.setSentAt(LocalDateTime.now());
+        
+        Message saved = messageRepo.save(message);
+        notificationService.notifyMessage(saved);
+        
+        response.put("message", "Message sent successfully!");
+        response.put("success", true);
+        return response;
     }
 
     // Get messages sent by a recruiter
     @GetMapping("/messages/{recruiterId}")
-    public List<Map<String, Object>> getRecruiterMessages(@PathVariable Long recruiterId) {
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getRecruiterMessages(@PathVariable Long recruiterId, HttpServletRequest request) {
+        AuthPrincipal.requireRecruiter(request, recruiterId);
         List<Message> messages = messageRepo.findByRecruiterIdOrderBySentAtDesc(recruiterId);
         return messages.stream().map(msg -> {
             Map<String, Object> msgData = new HashMap<>();
@@ -165,5 +225,12 @@ public class RecruiterController {
             return msgData;
         }).collect(Collectors.toList());
     }
-}
 
+    private static Long parseId(Object value, String name) {
+        try {
+            return Long.parseLong(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "VALIDATION_ERROR", name + " must be a number");
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.controller;
+
+import com.example.exception.ApiException;
+import com.example.repository.StudentRepository;
+import com.example.security.AuthPrincipal;
+import com.example.service.CandidateSearchService;
+import com.example.service.ResumeStorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/student/resume")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ResumeController {
+    // Tomcat request attributes for handing a file region to the connector (sendfile)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final StudentRepository studentRepo;
+    private final ResumeStorageService resumeStorage;
+    private final CandidateSearchService candidateSearch;
+
+    public ResumeController(StudentRepository studentRepo, ResumeStorageService resumeStorage,
+                            CandidateSearchService candidateSearch) {
+        this.studentRepo = studentRepo;
+        this.resumeStorage = resumeStorage;
+        this.candidateSearch = candidateSearch;
+    }
+
+    // Upload a resume (PDF, DOCX, DOC or TXT) and make it the signed-in student's current one
+    @PostMapping(value = "/{studentId}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Map<String, Object>> upload(@PathVariable Long studentId,
+                                                      @RequestParam("file") MultipartFile file,
+                                                      HttpServletRequest request) throws IOException {
+        AuthPrincipal.requireStudent(request, studentId);
+        Map<String, Object> res = new HashMap<>();
+
+        ResumeStorageService.StoredResume stored;
+        try (InputStream in = file.getInputStream()) {
+            stored = resumeStorage.store(in, file.getOriginalFilename());
+        } catch (IllegalArgumentException e) {
+            res.put("message", e.getMessage());
+            res.put("error", "VALIDATION_ERROR");
+            res.put("success", false);
+            return ResponseEntity.badRequest().body(res);
+        }
+
+        studentRepo.updateResumePath(studentId, stored.getKey());
+        candidateSearch.indexStudent(studentId); // text extraction happens in the background
+
+        res.put("message", "Resume uploaded successfully!");
+        res.put("success", true);
+        res.put("resumePath", stored.getKey());
+        res.put("resumeUrl", "/api/student/resume/" + studentId);
+        res.put("size", stored.getSize());
+        res.put("deduplicated", stored.isDeduplicated());
+        return ResponseEntity.ok(res);
+    }
+
+    // Download a resume (the student or any recruiter); supports ETag revalidation and single byte ranges
+    @GetMapping("/{studentId}")
+    public void download(@PathVariable Long studentId, HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        AuthPrincipal principal = AuthPrincipal.require(request);
+        if (!AuthPrincipal.RECRUITER.equals(principal.getRole())) {
+            AuthPrincipal.requireStudent(request, studentId);
+        }
+        String key = studentRepo.findResumePathById(studentId).orElse(null);
+        Path file = resumeStorage.resolve(key);
+        if (file == null) {
+            throw new ApiException(HttpStatus.NOT_FOUND, "NOT_FOUND", "No resume uploaded");
+        }
+
+        // Content-addressed: the key changes whenever the content does
+        String etag = "\"" + key.substring(0, key.indexOf('.')) + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // Served inline with a type from the extension; stop browsers from sniffing HTML out of it
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long length = Files.size(file);
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            long[] bounds = parseRange(range, length);
+            if (bounds == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(ResumeStorageService.contentTypeOf(key));
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            "inline; filename=\"resume" + key.substring(key.indexOf('.')) + "\"");
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // The connector writes the region straight from the file to the socket
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                position += channel.transferTo(position, end + 1 - position, out);
+            }
+        }
+    }
+
+    /**
+     * Parse a single "bytes=" range
+     * @return {start, end} inclusive; empty array to serve the whole file (multi-range or
+     *         non-byte units); null if the range cannot be satisfied
+     */
+    private static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            long start;
+            long end;
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(spec.substring(0, dash));
+                end = dash == spec.length() - 1 ? length - 1 : Math.min(Long.parseLong(spec.substring(dash + 1)), length - 1);
+            }
+            if (start >= length || start > end) {
+                return null;
+            }
+            return new long[] { start, end };
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+}
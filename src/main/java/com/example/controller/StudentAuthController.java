@@ -1,10 +1,20 @@
 package com.example.controller;
 
+import com.example.exception.ApiException;
+import com.example.logging.ThrottledErrorLogger;
 import com.example.model.Student;
 import com.example.repository.StudentRepository;
 import com.example.service.OtpService;
 import com.example.service.EmailService;
+import com.example.service.CandidateSearchService;
+import com.example.security.AuthPrincipal;
+import com.example.security.RateLimitService;
+import com.example.security.TokenService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.*;
@@ -13,6 +23,8 @@ import java.util.*;
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "http://localhost:3000")
 public class StudentAuthController {
+    private static final Logger log = LoggerFactory.getLogger(StudentAuthController.class);
+    private static final ThrottledErrorLogger errorLog = new ThrottledErrorLogger(log);
 
     @Autowired
     private StudentRepository studentRepo;
@@ -22,13 +34,23 @@ public class StudentAuthController {
     
     @Autowired
     private EmailService emailService;
+    
+    @Autowired
+    private RateLimitService rateLimitService;
+    
+    @Autowired
+    private TokenService tokenService;
+    
+    @Autowired
+    private CandidateSearchService candidateSearch;
 
     // REGISTER - Send OTP to email
     @PostMapping("/register")
-    public Map<String, Object> register(@RequestBody Map<String, String> req) {
+    public Map<String, Object> register(@RequestBody Map<String, String> req, HttpServletRequest request) {
         Map<String, Object> res = new HashMap<>();
         
         String email = req.get("email");
+        rateLimitService.check(RateLimitService.REGISTER, request.getRemoteAddr(), email);
         String name = req.get("name");
         
         // Validate input
@@ -46,28 +68,22 @@ public class StudentAuthController {
             return res;
         }
         
-        try {
-            // Generate and send OTP
-            String otp = otpService.generateOtp(email, name);
-            emailService.sendOtpEmail(email, otp, name);
-            
-            res.put("message", "OTP sent to your email. Please check your inbox and verify.");
-            res.put("success", true);
-        } catch (Exception e) {
-            res.put("message", "Error sending OTP: " + e.getMessage());
-            res.put("success", false);
-            e.printStackTrace();
-        }
+        // Generate and send OTP
+        String otp = otpService.generateOtp(email, name);
+        sendOtp(email, otp, name);
         
+        res.put("message", "OTP sent to your email. Please check your inbox and verify.");
+        res.put("success", true);
         return res;
     }
     
     // VERIFY OTP AND COMPLETE REGISTRATION
     @PostMapping("/verify-otp")
-    public Map<String, Object> verifyOtp(@RequestBody Map<String, String> req) {
+    public Map<String, Object> verifyOtp(@RequestBody Map<String, String> req, HttpServletRequest request) {
         Map<String, Object> res = new HashMap<>();
         
         String email = req.get("email");
+        rateLimitService.check(RateLimitService.VERIFY_OTP, request.getRemoteAddr(), email);
         String otp = req.get("otp");
         
         if (email == null || otp == null) {
@@ -99,49 +115,91 @@ public class StudentAuthController {
             return res;
         }
         
+        // Create and save student; database errors go to the exception handler
+        Student s = new Student();
+        s.setName(name);
+        s.setEmail(email);
+        s.setLevel("Beginner");
+        s.setScore(0);
+        
+        Student saved = studentRepo.save(s);
+        candidateSearch.indexStudent(saved.getId());
+        
+        // Send confirmation email; the account exists either way
         try {
-            // Create and save student
-            Student s = new Student();
-            s.setName(name);
-            s.setEmail(email);
-            s.setLevel("Beginner");
-            s.setScore(0);
-            
-            Student saved = studentRepo.save(s);
-            
-            // Send confirmation email
             emailService.sendRegistrationConfirmation(email, name, "Student");
-            
-            res.put("message", "Registration successful! Welcome to SkillFit!");
-            res.put("studentId", saved.getId());
-            res.put("name", saved.getName());
-            res.put("success", true);
         } catch (Exception e) {
-            res.put("message", "Error completing registration: " + e.getMessage());
-            res.put("success", false);
-            e.printStackTrace();
+            errorLog.error("Error sending registration confirmation", e);
         }
         
+        res.put("message", "Registration successful! Welcome to SkillFit!");
+        res.put("studentId", saved.getId());
+        res.put("name", saved.getName());
+        res.put("token", tokenService.issue(AuthPrincipal.STUDENT, saved.getId()));
+        res.put("success", true);
         return res;
     }
 
-    // LOGIN
+    // LOGIN - students have no password, so login takes the same proof as registration:
+    // POST {email} mails a one-time code, POST {email, otp} checks it and issues the token
     @PostMapping("/login")
-    public Map<String, Object> login(@RequestBody Map<String, String> req) {
+    public Map<String, Object> login(@RequestBody Map<String, String> req, HttpServletRequest request) {
 
         String email = req.get("email");
-        Optional<Student> s = studentRepo.findByEmail(email);
-
+        String otp = req.get("otp");
         Map<String, Object> res = new HashMap<>();
 
-        if (s.isPresent()) {
-            res.put("message", "Login successful!");
-            res.put("studentId", s.get().getId());
-            res.put("name", s.get().getName());
-        } else {
-            res.put("message", "User not found!");
+        if (email == null || email.trim().isEmpty()) {
+            res.put("message", "Email is required!");
+            res.put("success", false);
+            return res;
+        }
+
+        if (otp == null) {
+            rateLimitService.check(RateLimitService.LOGIN, request.getRemoteAddr(), email);
+            Optional<Student> s = studentRepo.findByEmail(email);
+            if (s.isEmpty()) {
+                res.put("message", "User not found!");
+                res.put("success", false);
+                return res;
+            }
+            String code = otpService.generateOtp(loginOtpKey(email), s.get().getName());
+            emailService.sendLoginOtpEmail(email, code, s.get().getName());
+            res.put("message", "Login code sent to your email.");
+            res.put("otpRequired", true);
+            res.put("success", true);
+            return res;
         }
 
+        rateLimitService.check(RateLimitService.VERIFY_OTP, request.getRemoteAddr(), email);
+        Optional<Student> s = studentRepo.findByEmail(email);
+        if (s.isEmpty() || !otpService.verifyOtp(loginOtpKey(email), otp)) {
+            res.put("message", "Invalid or expired OTP!");
+            res.put("success", false);
+            return res;
+        }
+
+        res.put("message", "Login successful!");
+        res.put("studentId", s.get().getId());
+        res.put("name", s.get().getName());
+        res.put("token", tokenService.issue(AuthPrincipal.STUDENT, s.get().getId()));
+        res.put("success", true);
         return res;
     }
+
+    // Login codes are stored apart from pending registrations for the same address
+    private static String loginOtpKey(String email) {
+        return "login:" + email;
+    }
+
+    // Mail failures are logged here; the client only learns that sending failed
+    private void sendOtp(String email, String otp, String name) {
+        try {
+            emailService.sendOtpEmail(email, otp, name);
+        } catch (Exception e) {
+            errorLog.error("Error sending OTP", e);
+            throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "EMAIL_FAILED",
+                "Could not send the verification email, please try again later");
+        }
+    }
 }
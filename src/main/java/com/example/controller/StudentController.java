@@ -4,8 +4,15 @@ import com.example.model.ResultEntity;
 import com.example.model.Student;
 import com.example.repository.ResultRepository;
 import com.example.repository.StudentRepository;
+import com.example.security.AuthPrincipal;
+import com.example.service.AssessmentHistoryService;
+import com.example.service.CandidateSearchService;
+import com.example.service.ResumeStorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -18,14 +25,23 @@ import java.util.stream.Collectors;
 public class StudentController {
     private final StudentRepository studentRepo;
     private final ResultRepository resultRepo;
+    private final ResumeStorageService resumeStorage;
+    private final CandidateSearchService candidateSearch;
+    private final AssessmentHistoryService assessmentHistory;
 
-    public StudentController(StudentRepository studentRepo, ResultRepository resultRepo) {
+    public StudentController(StudentRepository studentRepo, ResultRepository resultRepo,
+                             ResumeStorageService resumeStorage, CandidateSearchService candidateSearch,
+                             AssessmentHistoryService assessmentHistory) {
         this.studentRepo = studentRepo;
         this.resultRepo = resultRepo;
+        this.resumeStorage = resumeStorage;
+        this.candidateSearch = candidateSearch;
+        this.assessmentHistory = assessmentHistory;
     }
 
     @GetMapping("/result/{id}")
-    public Map<String, Object> getLatestResult(@PathVariable Long id) {
+    public Map<String, Object> getLatestResult(@PathVariable Long id, HttpServletRequest request) {
+        AuthPrincipal.requireStudent(request, id);
         Student s = studentRepo.findById(id).orElse(null);
         ResultEntity latest = resultRepo.findByStudentIdOrderByTakenAtDesc(id).stream().findFirst().orElse(null);
         Map<String, Object> resp = new HashMap<>();
@@ -44,7 +60,8 @@ public class StudentController {
 
     // GET ALL ASSESSMENT RESULTS
     @GetMapping("/assessments/{id}")
-    public Map<String, Object> getAllAssessments(@PathVariable Long id) {
+    public Map<String, Object> getAllAssessments(@PathVariable Long id, HttpServletRequest request) {
+        AuthPrincipal.requireStudent(request, id);
         Map<String, Object> resp = new HashMap<>();
         List<ResultEntity> results = resultRepo.findByStudentIdOrderByTakenAtDesc(id);
         
@@ -63,9 +80,34 @@ public class StudentController {
         return resp;
     }
 
+    // ASSESSMENT HISTORY - newest first, one page at a time (pass nextCursor back as cursor)
+    @GetMapping("/assessments/{id}/history")
+    public Map<String, Object> getAssessmentHistory(@PathVariable Long id,
+                                                    @RequestParam(required = false) Long recruiterId,
+                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(defaultValue = "20") int limit,
+                                                    HttpServletRequest request) {
+        AuthPrincipal.requireStudent(request, id);
+        return assessmentHistory.history(id, recruiterId, from, to, cursor, limit);
+    }
+
+    // ASSESSMENT SUMMARY - count, best, average, latest and trend, overall and per recruiter
+    @GetMapping("/assessments/{id}/summary")
+    public Map<String, Object> getAssessmentSummary(@PathVariable Long id,
+                                                    @RequestParam(required = false) Long recruiterId,
+                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                    HttpServletRequest request) {
+        AuthPrincipal.requireStudent(request, id);
+        return assessmentHistory.summary(id, recruiterId, from, to);
+    }
+
     // GET PROFILE
     @GetMapping("/profile/{id}")
-    public Map<String, Object> getProfile(@PathVariable Long id) {
+    public Map<String, Object> getProfile(@PathVariable Long id, HttpServletRequest request) {
+        AuthPrincipal.requireStudent(request, id);
         Map<String, Object> res = new HashMap<>();
         Optional<Student> studentOpt = studentRepo.findById(id);
         
@@ -77,6 +119,7 @@ public class StudentController {
             res.put("college", s.getCollege());
             res.put("degree", s.getDegree());
             res.put("resumePath", s.getResumePath());
+            res.put("resumeUrl", s.getResumePath() != null ? "/api/student/resume/" + s.getId() : null);
             res.put("message", "Profile retrieved successfully");
         } else {
             res.put("message", "Student not found!");
@@ -88,7 +131,9 @@ public class StudentController {
 
     // UPDATE PROFILE
     @PutMapping("/profile/{id}")
-    public Map<String, Object> updateProfile(@PathVariable Long id, @RequestBody Map<String, String> req) {
+    public Map<String, Object> updateProfile(@PathVariable Long id, @RequestBody Map<String, String> req,
+                                             HttpServletRequest request) {
+        AuthPrincipal.requireStudent(request, id);
         Map<String, Object> res = new HashMap<>();
         Optional<Student> studentOpt = studentRepo.findById(id);
         
@@ -107,11 +152,14 @@ public class StudentController {
             if (req.containsKey("degree") && req.get("degree") != null) {
                 s.setDegree(req.get("degree").trim());
             }
-            if (req.containsKey("resumePath") && req.get("resumePath") != null) {
+            // resumePath must name a file in the resume store (see POST /api/student/resume/{id})
+            if (req.containsKey("resumePath") && req.get("resumePath") != null
+                    && resumeStorage.exists(req.get("resumePath").trim())) {
                 s.setResumePath(req.get("resumePath").trim());
             }
             
             studentRepo.save(s);
+            candidateSearch.indexStudent(s.getId());
             res.put("message", "Profile updated successfully!");
             res.put("id", s.getId());
             res.put("name", s.getName());
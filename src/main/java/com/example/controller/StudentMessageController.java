@@ -1,9 +1,15 @@
 package com.example.controller;
 
+import com.example.exception.ApiException;
 import com.example.model.Message;
 import com.example.model.Student;
 import com.example.repository.MessageRepository;
 import com.example.repository.StudentRepository;
+import com.example.security.AuthPrincipal;
+import com.example.service.NotificationService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
@@ -16,63 +22,57 @@ import java.util.stream.Collectors;
 public class StudentMessageController {
     private final MessageRepository messageRepo;
     private final StudentRepository studentRepo;
+    private final NotificationService notificationService;
 
-    public StudentMessageController(MessageRepository messageRepo, StudentRepository studentRepo) {
+    public StudentMessageController(MessageRepository messageRepo, StudentRepository studentRepo,
+                                    NotificationService notificationService) {
         this.messageRepo = messageRepo;
         this.studentRepo = studentRepo;
+        this.notificationService = notificationService;
     }
 
-    // Student sends message to another student
+    // Student sends message to another student; the sender is the signed-in student
     @PostMapping("/send")
-    public Map<String, Object> sendMessage(@RequestBody Map<String, Object> req) {
+    public Map<String, Object> sendMessage(@RequestBody Map<String, Object> req, HttpServletRequest request) {
         Map<String, Object> response = new HashMap<>();
+        Long senderId = AuthPrincipal.requireRole(request, AuthPrincipal.STUDENT).getId();
         
-        try {
-            Long senderId = Long.parseLong(req.get("senderId").toString());
-            Long recipientId = Long.parseLong(req.get("recipientId").toString());
-            String subject = req.get("subject") != null ? req.get("subject").toString() : "Message";
-            String messageText = req.get("message").toString();
-            
-            Optional<Student> senderOpt = studentRepo.findById(senderId);
-            Optional<Student> recipientOpt = studentRepo.findById(recipientId);
-            
-            if (!senderOpt.isPresent()) {
-                response.put("error", "Sender not found");
-                response.put("success", false);
-                return response;
-            }
-            
-            if (!recipientOpt.isPresent()) {
-                response.put("error", "Recipient not found");
-                response.put("success", false);
-                return response;
-            }
-            
-            Message message = new Message();
-            message.setSenderStudent(senderOpt.get());
-            message.setStudent(recipientOpt.get());
-            message.setRecruiter(null); // Student-to-student message
-            message.setSubject(subject);
-            message.setMessage(messageText);
-            message.setSentAt(LocalDateTime.now());
-            
-            messageRepo.save(message);
-            
-            response.put("message", "Message sent successfully!");
-            response.put("success", true);
-            return response;
-            
-        } catch (Exception e) {
-            response.put("error", "Error sending message: " + e.getMessage());
+        if (req.get("recipientId") == null || req.get("message") == null) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "VALIDATION_ERROR", "recipientId and message are required");
+        }
+        Long recipientId = parseId(req.get("recipientId"), "recipientId");
+        String subject = req.get("subject") != null ? req.get("subject").toString() : "Message";
+        String messageText = req.get("message").toString();
+        
+        Optional<Student> recipientOpt = studentRepo.findById(recipientId);
+        
+        if (!recipientOpt.isPresent()) {
+            response.put("error", "Recipient not found");
             response.put("success", false);
-            e.printStackTrace();
             return response;
         }
+        
+        Message message = new Message();
+        message.setSenderStudent(studentRepo.getReferenceById(senderId)); // the token proves the sender exists
+        message.setStudent(recipientOpt.get());
+        message.setRecruiter(null); // Student-to-student message
+        message.setSubject(subject);
+        message.setMessage(messageText);
+        message.setSentAt(LocalDateTime.now());
+        
+        Message saved = messageRepo.save(message);
+        notificationService.notifyMessage(saved);
+        
+        response.put("message", "Message sent successfully!");
+        response.put("success", true);
+        return response;
     }
 
     // Get messages received by a student
     @GetMapping("/received/{studentId}")
-    public List<Map<String, Object>> getReceivedMessages(@PathVariable Long studentId) {
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getReceivedMessages(@PathVariable Long studentId, HttpServletRequest request) {
+        AuthPrincipal.requireStudent(request, studentId);
         List<Message> messages = messageRepo.findByStudentIdOrderBySentAtDesc(studentId);
         return messages.stream().map(msg -> {
             Map<String, Object> msgData = new HashMap<>();
@@ -97,7 +97,9 @@ public class StudentMessageController {
 
     // Get messages sent by a student
     @GetMapping("/sent/{studentId}")
-    public List<Map<String, Object>> getSentMessages(@PathVariable Long studentId) {
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getSentMessages(@PathVariable Long studentId, HttpServletRequest request) {
+        AuthPrincipal.requireStudent(request, studentId);
         List<Message> messages = messageRepo.findBySenderStudentIdOrderBySentAtDesc(studentId);
         return messages.stream().map(msg -> {
             Map<String, Object> msgData = new HashMap<>();
@@ -113,11 +115,19 @@ public class StudentMessageController {
 
     // Get unread message count
     @GetMapping("/unread-count/{studentId}")
-    public Map<String, Object> getUnreadCount(@PathVariable Long studentId) {
+    public Map<String, Object> getUnreadCount(@PathVariable Long studentId, HttpServletRequest request) {
+        AuthPrincipal.requireStudent(request, studentId);
         long count = messageRepo.countByStudentIdAndSenderStudentIsNotNull(studentId);
         Map<String, Object> response = new HashMap<>();
         response.put("unreadCount", count);
         return response;
     }
-}
 
+    private static Long parseId(Object value, String name) {
+        try {
+            return Long.parseLong(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "VALIDATION_ERROR", name + " must be a number");
+        }
+    }
+}
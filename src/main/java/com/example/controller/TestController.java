@@ -1,29 +1,27 @@
 package com.example.controller;
 
-import com.example.model.Job;
+import com.example.exception.ApiException;
+import com.example.model.AnswerRecord;
 import com.example.model.QuestionEntity;
-import com.example.model.ResultEntity;
 import com.example.model.Student;
-import com.example.repository.JobRepository;
 import com.example.repository.QuestionRepository;
-import com.example.repository.ResultRepository;
 import com.example.repository.StudentRepository;
+import com.example.security.AuthPrincipal;
+import com.example.service.QuestionBankService;
+import com.example.service.ResultService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
 import java.util.*;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/test")
 @CrossOrigin(origins = "http://localhost:3000")
 public class TestController {
 
-    @Autowired
-    private ResultRepository resultRepository;
-
     @Autowired
     private StudentRepository studentRepository;
 
@@ -31,44 +29,41 @@ public class TestController {
     private QuestionRepository questionRepository;
     
     @Autowired
-    private JobRepository jobRepository;
+    private QuestionBankService questionBankService;
+
+    @Autowired
+    private ResultService resultService;
 
     // Get questions without answers (for students to take test)
     @GetMapping("/questions")
     public List<Map<String, Object>> getQuestions(@RequestParam(required = false) Long jobId) {
-        List<QuestionEntity> questions;
-        
-        if (jobId != null) {
-            // Get questions specific to this job
-            questions = questionRepository.findByJobIdAndIsActiveTrue(jobId);
-            // If no job-specific questions, fall back to general questions
-            if (questions.isEmpty()) {
-                questions = questionRepository.findByJobIdIsNullAndIsActiveTrue();
-            }
-        } else {
-            // Get general questions (not linked to any specific job)
-            questions = questionRepository.findByJobIdIsNullAndIsActiveTrue();
-        }
+        // Job-specific questions, falling back to general questions (same set submitTest scores against)
+        QuestionBankService.QuestionBank bank = questionBankService.getBank(jobId);
         
         // If no questions in database, return default questions without answers
-        if (questions.isEmpty()) {
+        if (bank.isEmpty()) {
             return getDefaultQuestionsWithoutAnswers();
         }
         
         // Return questions without correct answers
-        return questions.stream().map(q -> {
+        List<Map<String, Object>> questions = new ArrayList<>(bank.size());
+        for (int i = 0; i < bank.size(); i++) {
+            QuestionEntity q = bank.question(i);
             Map<String, Object> questionData = new HashMap<>();
             questionData.put("id", q.getId());
             questionData.put("questionText", q.getQuestionText());
             questionData.put("options", q.getOptions());
             // Don't include correctAnswer
-            return questionData;
-        }).collect(Collectors.toList());
+            questions.add(questionData);
+        }
+        return questions;
     }
 
     // Get questions with answers (for admin/recruiter to view)
     @GetMapping("/questions/with-answers")
-    public List<QuestionEntity> getQuestionsWithAnswers(@RequestParam(required = false) Long recruiterId) {
+    public List<QuestionEntity> getQuestionsWithAnswers(@RequestParam(required = false) Long recruiterId,
+                                                        HttpServletRequest request) {
+        AuthPrincipal.requireRole(request, AuthPrincipal.RECRUITER);
         if (recruiterId != null) {
             return questionRepository.findByRecruiterIdAndIsActiveTrue(recruiterId);
         }
@@ -77,145 +72,138 @@ public class TestController {
 
     // Create/Store test questions with answers
     @PostMapping("/questions/create")
-    public Map<String, Object> createQuestion(@RequestBody Map<String, Object> req) {
+    public Map<String, Object> createQuestion(@RequestBody Map<String, Object> req, HttpServletRequest request) {
         Map<String, Object> response = new HashMap<>();
+        Long recruiterId = AuthPrincipal.requireRole(request, AuthPrincipal.RECRUITER).getId();
         
-        try {
-            QuestionEntity question = new QuestionEntity();
-            question.setQuestionText(req.get("questionText").toString());
-            @SuppressWarnings("unchecked")
-            List<String> options = (List<String>) req.get("options");
-            question.setOptions(options);
-            question.setCorrectAnswer(req.get("correctAnswer").toString());
-            question.setActive(true);
-            
-            // Set jobId if provided (optional field)
-            if (req.containsKey("jobId") && req.get("jobId") != null) {
-                try {
-                    Long jobId = Long.parseLong(req.get("jobId").toString());
-                    question.setJobId(jobId);
-                } catch (NumberFormatException e) {
-                    // If jobId is not a valid number, leave it as null
-                    question.setJobId(null);
-                }
-            } else {
+        if (req.get("questionText") == null || req.get("correctAnswer") == null) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "VALIDATION_ERROR", "questionText, options and correctAnswer are required");
+        }
+        QuestionEntity question = new QuestionEntity();
+        question.setQuestionText(req.get("questionText").toString());
+        question.setOptions(options(req.get("options")));
+        question.setCorrectAnswer(req.get("correctAnswer").toString());
+        question.setActive(true);
+        
+        // Set jobId if provided (optional field)
+        if (req.containsKey("jobId") && req.get("jobId") != null) {
+            try {
+                Long jobId = Long.parseLong(req.get("jobId").toString());
+                question.setJobId(jobId);
+            } catch (NumberFormatException e) {
+                // If jobId is not a valid number, leave it as null
                 question.setJobId(null);
             }
-            
-            // Set recruiterId if provided (optional field)
-            if (req.containsKey("recruiterId") && req.get("recruiterId") != null) {
-                try {
-                    Long recruiterId = Long.parseLong(req.get("recruiterId").toString());
-                    question.setRecruiterId(recruiterId);
-                } catch (NumberFormatException e) {
-                    // If recruiterId is not a valid number, leave it as null
-                    question.setRecruiterId(null);
-                }
-            } else {
-                question.setRecruiterId(null);
-            }
-            
-            QuestionEntity saved = questionRepository.save(question);
-            
-            response.put("message", "Question created successfully!");
-            response.put("questionId", saved.getId());
-            response.put("success", true);
-            return response;
-            
-        } catch (Exception e) {
-            response.put("error", "Error creating question: " + e.getMessage());
-            response.put("success", false);
-            e.printStackTrace();
-            return response;
+        } else {
+            question.setJobId(null);
         }
+        
+        // Questions belong to the signed-in recruiter
+        question.setRecruiterId(recruiterId);
+        
+        QuestionEntity saved = questionRepository.save(question);
+        questionBankService.invalidate();
+        
+        response.put("message", "Question created successfully!");
+        response.put("questionId", saved.getId());
+        response.put("success", true);
+        return response;
     }
 
     // Update question
     @PutMapping("/questions/update/{id}")
-    public Map<String, Object> updateQuestion(@PathVariable Long id, @RequestBody Map<String, Object> req) {
+    public Map<String, Object> updateQuestion(@PathVariable Long id, @RequestBody Map<String, Object> req,
+                                              HttpServletRequest request) {
         Map<String, Object> response = new HashMap<>();
+        AuthPrincipal.requireRole(request, AuthPrincipal.RECRUITER);
+        Optional<QuestionEntity> questionOpt = questionRepository.findById(id);
         
-        try {
-            Optional<QuestionEntity> questionOpt = questionRepository.findById(id);
-            
-            if (!questionOpt.isPresent()) {
-                response.put("error", "Question not found");
-                response.put("success", false);
-                return response;
-            }
-            
-            QuestionEntity question = questionOpt.get();
-            
-            if (req.containsKey("questionText") && req.get("questionText") != null) {
-                question.setQuestionText(req.get("questionText").toString());
-            }
-            
-            if (req.containsKey("options")) {
-                @SuppressWarnings("unchecked")
-                List<String> options = (List<String>) req.get("options");
-                question.setOptions(options);
-            }
-            
-            if (req.containsKey("correctAnswer") && req.get("correctAnswer") != null) {
-                question.setCorrectAnswer(req.get("correctAnswer").toString());
-            }
-            
-            if (req.containsKey("jobId")) {
-                if (req.get("jobId") != null && !req.get("jobId").toString().isEmpty()) {
-                    try {
-                        Long jobId = Long.parseLong(req.get("jobId").toString());
-                        question.setJobId(jobId);
-                    } catch (NumberFormatException e) {
-                        question.setJobId(null);
-                    }
-                } else {
+        if (!questionOpt.isPresent()) {
+            response.put("error", "Question not found");
+            response.put("success", false);
+            return response;
+        }
+        
+        QuestionEntity question = questionOpt.get();
+        requireOwner(request, question);
+        
+        
+        if (req.containsKey("questionText") && req.get("questionText") != null) {
+            question.setQuestionText(req.get("questionText").toString());
+        }
+        
+        if (req.containsKey("options")) {
+            question.setOptions(options(req.get("options")));
+        }
+        
+        if (req.containsKey("correctAnswer") && req.get("correctAnswer") != null) {
+            question.setCorrectAnswer(req.get("correctAnswer").toString());
+        }
+        
+        if (req.containsKey("jobId")) {
+            if (req.get("jobId") != null && !req.get("jobId").toString().isEmpty()) {
+                try {
+                    Long jobId = Long.parseLong(req.get("jobId").toString());
+                    question.setJobId(jobId);
+                } catch (NumberFormatException e) {
                     question.setJobId(null);
                 }
+            } else {
+                question.setJobId(null);
             }
-            
-            questionRepository.save(question);
-            
-            response.put("message", "Question updated successfully!");
-            response.put("questionId", question.getId());
-            response.put("success", true);
-            return response;
-            
-        } catch (Exception e) {
-            response.put("error", "Error updating question: " + e.getMessage());
-            response.put("success", false);
-            e.printStackTrace();
-            return response;
         }
+        
+        questionRepository.save(question);
+        questionBankService.invalidate();
+        
+        response.put("message", "Question updated successfully!");
+        response.put("questionId", question.getId());
+        response.put("success", true);
+        return response;
     }
 
     // Delete question (soft delete by setting isActive to false)
     @DeleteMapping("/questions/delete/{id}")
-    public Map<String, Object> deleteQuestion(@PathVariable Long id) {
+    public Map<String, Object> deleteQuestion(@PathVariable Long id, HttpServletRequest request) {
         Map<String, Object> response = new HashMap<>();
+        AuthPrincipal.requireRole(request, AuthPrincipal.RECRUITER);
+        Optional<QuestionEntity> questionOpt = questionRepository.findById(id);
         
-        try {
-            Optional<QuestionEntity> questionOpt = questionRepository.findById(id);
-            
-            if (!questionOpt.isPresent()) {
-                response.put("error", "Question not found");
-                response.put("success", false);
-                return response;
-            }
-            
-            QuestionEntity question = questionOpt.get();
-            question.setActive(false); // Soft delete
-            questionRepository.save(question);
-            
-            response.put("message", "Question deleted successfully!");
-            response.put("success", true);
-            return response;
-            
-        } catch (Exception e) {
-            response.put("error", "Error deleting question: " + e.getMessage());
+        if (!questionOpt.isPresent()) {
+            response.put("error", "Question not found");
             response.put("success", false);
-            e.printStackTrace();
             return response;
         }
+        
+        QuestionEntity question = questionOpt.get();
+        requireOwner(request, question);
+        
+        question.setActive(false); // Soft delete
+        questionRepository.save(question);
+        questionBankService.invalidate();
+        
+        response.put("message", "Question deleted successfully!");
+        response.put("success", true);
+        return response;
+    }
+
+    // Options must be a JSON array; elements are kept as text
+    private static List<String> options(Object value) {
+        if (!(value instanceof List<?> list)) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "VALIDATION_ERROR", "options must be an array");
+        }
+        List<String> options = new ArrayList<>(list.size());
+        for (Object option : list) {
+            options.add(option != null ? option.toString() : null);
+        }
+        return options;
+    }
+
+    // Recruiter questions can only be changed by their owner; general questions (no recruiter) by any recruiter
+    private static void requireOwner(HttpServletRequest request, QuestionEntity question) {
+        if (question.getRecruiterId() != null) {
+            AuthPrincipal.requireRecruiter(request, question.getRecruiterId());
+        }
     }
 
     // Helper method to return default questions without answers
@@ -249,29 +237,32 @@ public class TestController {
         return defaultQuestions;
     }
 
-    // Get correct answers for scoring (internal use)
-    private Map<Long, String> getCorrectAnswers() {
-        List<QuestionEntity> questions = questionRepository.findByIsActiveTrue();
-        if (questions.isEmpty()) {
-            // Return default answers
-            Map<Long, String> defaultAnswers = new HashMap<>();
-            defaultAnswers.put(1L, "Java");
-            defaultAnswers.put(2L, "Frontend");
-            defaultAnswers.put(3L, "Java");
-            defaultAnswers.put(4L, "MongoDB");
-            return defaultAnswers;
-        }
+    // Score against the default answers when the database has no questions (internal use)
+    private int scoreDefaultQuestions(Map<String, String> userAnswers) {
+        Map<Long, String> defaultAnswers = new LinkedHashMap<>();
+        defaultAnswers.put(1L, "Java");
+        defaultAnswers.put(2L, "Frontend");
+        defaultAnswers.put(3L, "Java");
+        defaultAnswers.put(4L, "MongoDB");
         
-        return questions.stream()
-            .collect(Collectors.toMap(QuestionEntity::getId, QuestionEntity::getCorrectAnswer));
+        int score = 0;
+        for (Map.Entry<Long, String> entry : defaultAnswers.entrySet()) {
+            String userAnswer = userAnswers.get(entry.getKey().toString());
+            if (userAnswer != null && userAnswer.equalsIgnoreCase(entry.getValue())) {
+                score++;
+            }
+        }
+        return score;
     }
 
     @PostMapping("/submit")
-    public Map<String, Object> submitTest(@RequestBody Map<String, Object> request,
+    public Map<String, Object> submitTest(@RequestBody Map<String, Object> body,
                                           @RequestParam Long studentId,
-                                          @RequestParam(required = false) Long jobId) {
+                                          @RequestParam(required = false) Long jobId,
+                                          HttpServletRequest request) {
+        AuthPrincipal.requireStudent(request, studentId);
         @SuppressWarnings("unchecked")
-        Map<String, String> userAnswers = (Map<String, String>) request.get("answers");
+        Map<String, String> userAnswers = (Map<String, String>) body.get("answers");
         
         if (userAnswers == null) {
             Map<String, Object> error = new HashMap<>();
@@ -279,83 +270,32 @@ public class TestController {
             return error;
         }
 
-        int score = 0;
-        int totalQuestions = 0;
-        Long recruiterId = null;
-
-        // Determine recruiterId: first try from job, then from questions
-        if (jobId != null) {
-            Optional<Job> jobOpt = jobRepository.findById(jobId);
-            if (jobOpt.isPresent() && jobOpt.get().getRecruiterId() != null) {
-                recruiterId = jobOpt.get().getRecruiterId();
-            }
-        }
-
-        // Get correct answers from database
-        Map<Long, String> correctAnswers = getCorrectAnswers();
-        totalQuestions = correctAnswers.size();
-
-        // Calculate score and track question details
-        List<Map<String, Object>> questionDetails = new ArrayList<>();
-        for (Map.Entry<Long, String> entry : correctAnswers.entrySet()) {
-            Long questionId = entry.getKey();
-            String correctAnswer = entry.getValue();
-            String userAnswer = userAnswers.get(questionId.toString());
-            
-            boolean isCorrect = userAnswer != null && userAnswer.equalsIgnoreCase(correctAnswer);
-            if (isCorrect) {
-                score++;
-            }
-            
-            // Get question details for response
-            QuestionEntity question = questionRepository.findById(questionId).orElse(null);
-            if (question != null) {
-                // If recruiterId not set yet, try to get it from the question
-                if (recruiterId == null && question.getRecruiterId() != null) {
-                    recruiterId = question.getRecruiterId();
-                }
-                
-                Map<String, Object> qDetail = new HashMap<>();
-                qDetail.put("questionId", questionId);
-                qDetail.put("questionText", question.getQuestionText());
-                qDetail.put("options", question.getOptions());
-                qDetail.put("correctAnswer", correctAnswer);
-                qDetail.put("userAnswer", userAnswer != null ? userAnswer : "Not answered");
-                qDetail.put("isCorrect", isCorrect);
-                questionDetails.add(qDetail);
-            }
-        }
-
-        String level;
-        if (totalQuestions == 0) {
-            level = "Beginner";
-        } else if (score <= totalQuestions * 0.25) {
-            level = "Beginner";
-        } else if (score <= totalQuestions * 0.75) {
-            level = "Intermediate";
+        // Score only the questions this job's test serves, from the cached answer key
+        QuestionBankService.QuestionBank bank = questionBankService.getBank(jobId);
+        int score;
+        int totalQuestions;
+        AnswerRecord answers;
+        List<Map<String, Object>> questionDetails;
+        if (bank.isEmpty()) {
+            // Default questions are not real rows, so no per-question answers are kept
+            answers = new AnswerRecord(0);
+            score = scoreDefaultQuestions(userAnswers);
+            totalQuestions = 4;
+            questionDetails = new ArrayList<>();
         } else {
-            level = "Advanced";
+            QuestionBankService.ScoredTest scored = bank.score(null, userAnswers);
+            score = scored.getScore();
+            totalQuestions = scored.getTotalQuestions();
+            answers = scored.getAnswers();
+            questionDetails = scored.getQuestionDetails();
         }
+        String level = ResultService.levelFor(score, totalQuestions);
 
-        // Save Result
-        ResultEntity result = new ResultEntity();
+        // Save Result (also updates the student's latest result and the analytics rollups);
+        // the row is loaded because record() writes the new score and level to it
         Student student = studentRepository.findById(studentId).orElse(null);
-
         if (student != null) {
-            result.setStudent(student);
-            result.setScore(score);
-            result.setLevel(level);
-            result.setTotalQuestions(totalQuestions);
-            result.setTakenAt(LocalDateTime.now());
-            if (recruiterId != null) {
-                result.setRecruiterId(recruiterId);
-            }
-            resultRepository.save(result);
-
-            // Update student latest result
-            student.setScore(score);
-            student.setLevel(level);
-            studentRepository.save(student);
+            resultService.record(student, score, totalQuestions, bank.getRecruiterId(), jobId, answers);
         }
 
         Map<String, Object> response = new HashMap<>();
@@ -0,0 +1,46 @@
+package com.example.controller;
+
+import com.example.security.AuthPrincipal;
+import com.example.service.TestSessionService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/test/sessions")
+@CrossOrigin(origins = "http://localhost:3000")
+public class TestSessionController {
+    private final TestSessionService testSessionService;
+
+    public TestSessionController(TestSessionService testSessionService) {
+        this.testSessionService = testSessionService;
+    }
+
+    // Start a test session with a random subset/order of the job's questions
+    @PostMapping("/start")
+    public Map<String, Object> start(@RequestParam Long studentId,
+                                     @RequestParam(required = false) Long jobId,
+                                     @RequestParam(required = false) Integer count,
+                                     HttpServletRequest request) {
+        AuthPrincipal.requireStudent(request, studentId);
+        return testSessionService.start(studentId, jobId, count);
+    }
+
+    // Submit answers for the questions served in this session
+    @PostMapping("/{sessionId}/submit")
+    public Map<String, Object> submit(@PathVariable String sessionId, @RequestBody Map<String, Object> body,
+                                      HttpServletRequest request) {
+        Long studentId = AuthPrincipal.requireRole(request, AuthPrincipal.STUDENT).getId();
+        @SuppressWarnings("unchecked")
+        Map<String, String> userAnswers = (Map<String, String>) body.get("answers");
+        
+        if (userAnswers == null) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "Answers not provided");
+            return error;
+        }
+        return testSessionService.submit(sessionId, studentId, userAnswers);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * An expected client error (bad input, missing resource, throttling) that
+ * maps straight to a problem response. No stack trace is captured: these
+ * are part of normal operation, and a flood of bad requests should not
+ * cost a stack walk each.
+ */
+public class ApiException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final String error;
+
+    public ApiException(HttpStatus status, String error, String message) {
+        super(message, null, false, false);
+        this.status = status;
+        this.error = error;
+    }
+
+    public HttpStatus getStatus() { return status; }
+
+    // Stable machine-readable code, e.g. VALIDATION_ERROR
+    public String getError() { return error; }
+}
@@ -0,0 +1,43 @@
+package com.example.exception;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Count of handled errors per exception type, cheap enough to bump on
+ * every failed request. Published as the skillfit.errors metric, tagged
+ * by exception class, rather than on a public endpoint.
+ */
+@Component
+public class ErrorCounters {
+
+    private final ConcurrentMap<Class<?>, LongAdder> counts = new ConcurrentHashMap<>();
+    private final MeterRegistry registry;
+
+    public ErrorCounters(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void increment(Throwable e) {
+        LongAdder count = counts.get(e.getClass());
+        if (count == null) {
+            count = counts.computeIfAbsent(e.getClass(), this::register);
+        }
+        count.increment();
+    }
+
+    // Called once per exception class; the meter reads the adder when scraped
+    private LongAdder register(Class<?> type) {
+        LongAdder count = new LongAdder();
+        FunctionCounter.builder("skillfit.errors", count, LongAdder::sum)
+            .description("Errors handled by GlobalExceptionHandler")
+            .tag("type", type.getSimpleName())
+            .register(registry);
+        return count;
+    }
+}
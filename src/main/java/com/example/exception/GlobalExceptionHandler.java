@@ -1,74 +1,153 @@
 package com.example.exception;
 
+import com.example.logging.ThrottledErrorLogger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
+import org.springframework.web.HttpRequestMethodNotSupportedException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
-import org.springframework.dao.DataAccessException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
 
-import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Maps exceptions to RFC 7807 problem responses. Besides the standard
+ * fields each body carries "error" (a stable code) and "message" so
+ * existing clients keep working.
+ *
+ * Responses never include exception messages from the server side, which
+ * can leak SQL or internals. Client errors are logged at debug without a
+ * stack trace; server errors go through the throttled logger.
+ */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+    private static final ThrottledErrorLogger errorLog = new ThrottledErrorLogger(log);
+
+    // Fixed responses: status, title, detail and the error/message properties are built once
+    private static final Problem INVALID_REQUEST_BODY =
+        new Problem(HttpStatus.BAD_REQUEST, "INVALID_REQUEST_BODY", "Request body is missing or not valid JSON");
+    private static final Problem INVALID_PARAMETER =
+        new Problem(HttpStatus.BAD_REQUEST, "INVALID_PARAMETER", "A request parameter is missing or has the wrong type");
+    private static final Problem NOT_FOUND =
+        new Problem(HttpStatus.NOT_FOUND, "NOT_FOUND", "No endpoint at this path");
+    private static final Problem METHOD_NOT_ALLOWED =
+        new Problem(HttpStatus.METHOD_NOT_ALLOWED, "METHOD_NOT_ALLOWED", "HTTP method not supported for this endpoint");
+    private static final Problem UNSUPPORTED_MEDIA_TYPE =
+        new Problem(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "UNSUPPORTED_MEDIA_TYPE", "Content type not supported for this endpoint");
+    private static final Problem DATABASE_ERROR =
+        new Problem(HttpStatus.INTERNAL_SERVER_ERROR, "DATABASE_ERROR", "A database error occurred");
+    private static final Problem INTERNAL_ERROR =
+        new Problem(HttpStatus.INTERNAL_SERVER_ERROR, "INTERNAL_ERROR", "An unexpected error occurred");
+
+    /**
+     * Immutable parts of a problem response. body() creates only the
+     * ProblemDetail object itself, because Spring fills in "instance" on the
+     * object it is given, so one body must never be shared between responses.
+     */
+    private static final class Problem {
+        final HttpStatus status;
+        final String title;
+        final String detail;
+        final Map<String, Object> properties;
+
+        Problem(HttpStatus status, String error, String message) {
+            this.status = status;
+            this.title = status.getReasonPhrase();
+            this.detail = message;
+            this.properties = Map.of("error", error, "message", message);
+        }
+
+        ProblemDetail body() {
+            ProblemDetail problem = ProblemDetail.forStatus(status);
+            problem.setTitle(title);
+            problem.setDetail(detail);
+            problem.setProperties(properties);
+            return problem;
+        }
+
+        ResponseEntity<ProblemDetail> response() {
+            return ResponseEntity.status(status).body(body());
+        }
+    }
+
+    private final ErrorCounters errorCounters;
+
+    public GlobalExceptionHandler(ErrorCounters errorCounters) {
+        this.errorCounters = errorCounters;
+    }
+
+    // Per-request message (ApiException): nothing to preallocate beyond the status
+    private static ProblemDetail problem(HttpStatus status, String error, String message) {
+        return new Problem(status, error, message).body();
+    }
+
+    @ExceptionHandler(ApiException.class)
+    public ResponseEntity<ProblemDetail> handleApiException(ApiException e) {
+        errorCounters.increment(e);
+        log.debug("Client error {}: {}", e.getError(), e.getMessage());
+        return ResponseEntity.status(e.getStatus()).body(problem(e.getStatus(), e.getError(), e.getMessage()));
+    }
+
+    @ExceptionHandler(RateLimitedException.class)
+    public ResponseEntity<ProblemDetail> handleRateLimited(RateLimitedException e) {
+        errorCounters.increment(e);
+        return ResponseEntity.status(e.getStatus())
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+            .body(problem(e.getStatus(), e.getError(), e.getMessage()));
+    }
 
     @ExceptionHandler(HttpMessageNotReadableException.class)
-    public ResponseEntity<Map<String, Object>> handleHttpMessageNotReadable(HttpMessageNotReadableException e) {
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", "Invalid request body: " + e.getMessage());
-        response.put("error", "INVALID_REQUEST_BODY");
-        response.put("status", HttpStatus.BAD_REQUEST.value());
-        
-        System.err.println("=== HTTP MESSAGE NOT READABLE ===");
-        System.err.println("Error: " + e.getMessage());
-        e.printStackTrace();
-        System.err.println("==================================");
-        
-        return ResponseEntity.badRequest().body(response);
+    public ResponseEntity<ProblemDetail> handleHttpMessageNotReadable(HttpMessageNotReadableException e) {
+        return clientError(e, INVALID_REQUEST_BODY);
+    }
+
+    @ExceptionHandler({ MissingServletRequestParameterException.class, MethodArgumentTypeMismatchException.class })
+    public ResponseEntity<ProblemDetail> handleInvalidParameter(Exception e) {
+        return clientError(e, INVALID_PARAMETER);
+    }
+
+    @ExceptionHandler(NoResourceFoundException.class)
+    public ResponseEntity<ProblemDetail> handleNoResource(NoResourceFoundException e) {
+        return clientError(e, NOT_FOUND);
+    }
+
+    @ExceptionHandler(HttpRequestMethodNotSupportedException.class)
+    public ResponseEntity<ProblemDetail> handleMethodNotSupported(HttpRequestMethodNotSupportedException e) {
+        return clientError(e, METHOD_NOT_ALLOWED);
+    }
+
+    @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
+    public ResponseEntity<ProblemDetail> handleMediaTypeNotSupported(HttpMediaTypeNotSupportedException e) {
+        return clientError(e, UNSUPPORTED_MEDIA_TYPE);
     }
 
     @ExceptionHandler(DataAccessException.class)
-    public ResponseEntity<Map<String, Object>> handleDataAccessException(DataAccessException e) {
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", "Database error: " + e.getMessage());
-        response.put("error", "DATABASE_ERROR");
-        response.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
-        
-        if (e.getRootCause() != null) {
-            response.put("rootCause", e.getRootCause().getMessage());
-        }
-        
-        System.err.println("=== DATABASE ACCESS EXCEPTION ===");
-        System.err.println("Exception: " + e.getClass().getName());
-        System.err.println("Message: " + e.getMessage());
-        if (e.getRootCause() != null) {
-            System.err.println("Root Cause: " + e.getRootCause().getMessage());
-        }
-        e.printStackTrace();
-        System.err.println("=================================");
-        
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+    public ResponseEntity<ProblemDetail> handleDataAccessException(DataAccessException e) {
+        errorCounters.increment(e);
+        errorLog.error("Database access failed", e);
+        return DATABASE_ERROR.response();
     }
 
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<Map<String, Object>> handleException(Exception e) {
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", "Error: " + e.getMessage());
-        response.put("error", e.getClass().getSimpleName());
-        response.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
-        
-        // Log the error
-        System.err.println("=== GLOBAL EXCEPTION HANDLER ===");
-        System.err.println("Exception Type: " + e.getClass().getName());
-        System.err.println("Exception Message: " + e.getMessage());
-        if (e.getCause() != null) {
-            System.err.println("Cause: " + e.getCause().getMessage());
-        }
-        e.printStackTrace();
-        System.err.println("================================");
-        
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+    public ResponseEntity<ProblemDetail> handleException(Exception e) {
+        errorCounters.increment(e);
+        errorLog.error("Unhandled exception", e);
+        return INTERNAL_ERROR.response();
     }
-}
 
+    private ResponseEntity<ProblemDetail> clientError(Exception e, Problem problem) {
+        errorCounters.increment(e);
+        log.debug("Client error {}: {}", problem.properties.get("error"), e.getMessage());
+        return problem.response();
+    }
+}
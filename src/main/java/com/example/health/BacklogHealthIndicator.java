@@ -0,0 +1,65 @@
+package com.example.health;
+
+import com.example.service.CandidateSearchService;
+import com.example.service.EmailService;
+import com.example.service.NotificationService;
+import com.example.service.OtpService;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Saturation of the connection pools and in-memory queues, read from
+ * counters only. Informational: always UP, so a busy instance is not
+ * taken out of rotation.
+ */
+@Component
+public class BacklogHealthIndicator implements HealthIndicator {
+
+    private final List<HikariDataSource> pools;
+    private final EmailService emailService;
+    private final NotificationService notificationService;
+    private final OtpService otpService;
+    private final CandidateSearchService candidateSearch;
+
+    public BacklogHealthIndicator(List<HikariDataSource> pools, EmailService emailService,
+                                  NotificationService notificationService, OtpService otpService,
+                                  CandidateSearchService candidateSearch) {
+        this.pools = pools;
+        this.emailService = emailService;
+        this.notificationService = notificationService;
+        this.otpService = otpService;
+        this.candidateSearch = candidateSearch;
+    }
+
+    @Override
+    public Health health() {
+        Map<String, Object> poolDetails = new LinkedHashMap<>();
+        for (HikariDataSource pool : pools) {
+            HikariPoolMXBean stats = pool.getHikariPoolMXBean();
+            if (stats == null) {
+                continue; // not started yet
+            }
+            Map<String, Object> p = new LinkedHashMap<>();
+            p.put("active", stats.getActiveConnections());
+            p.put("idle", stats.getIdleConnections());
+            p.put("max", pool.getMaximumPoolSize());
+            p.put("threadsAwaiting", stats.getThreadsAwaitingConnection());
+            poolDetails.put(pool.getPoolName(), p);
+        }
+        return Health.up()
+            .withDetail("pools", poolDetails)
+            .withDetail("emailOutboxBacklog", emailService.getOutboxBacklog())
+            .withDetail("sseOpenStreams", notificationService.getOpenStreams())
+            .withDetail("ssePendingEvents", notificationService.getPendingEvents())
+            .withDetail("pendingOtps", otpService.size())
+            .withDetail("searchIndexQueue", candidateSearch.getQueuedUpdates())
+            .build();
+    }
+}
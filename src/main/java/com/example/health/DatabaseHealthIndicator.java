@@ -0,0 +1,132 @@
+package com.example.health;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Database health for the readiness probe: Connection.isValid on the
+ * writable pool (a driver ping, no table access), cached for a short TTL
+ * so frequent probes from many pods cost at most one ping per TTL.
+ * Read-only (replica) pools only contribute their pool counters as
+ * details; reads fall back to the primary when the replica is down, so
+ * it must not take the pod out of rotation.
+ *
+ * The ping runs on its own thread. Probes wait at most the configured
+ * timeout, including the wait for a pool connection, and while a check is
+ * in flight other probes get the previous result instead of queueing.
+ * Replaces Boot's default "db" indicator (management.health.db.enabled=false).
+ */
+@Component
+public class DatabaseHealthIndicator implements HealthIndicator {
+
+    private final List<HikariDataSource> pools;
+    private final long ttlMillis;
+    private final int timeoutSeconds;
+    private final AtomicBoolean checking = new AtomicBoolean();
+    private final ExecutorService checker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "db-health");
+        t.setDaemon(true);
+        return t;
+    });
+    private volatile Health cached;
+    private volatile long checkedAt;
+
+    public DatabaseHealthIndicator(List<HikariDataSource> pools,
+                                   @Value("${skillfit.health.db-ttl-ms:5000}") long ttlMillis,
+                                   @Value("${skillfit.health.db-timeout-seconds:1}") int timeoutSeconds) {
+        this.pools = pools;
+        this.ttlMillis = ttlMillis;
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    @Override
+    public Health health() {
+        Health health = cached;
+        if (health != null && System.currentTimeMillis() - checkedAt <= ttlMillis) {
+            return health;
+        }
+        if (!checking.compareAndSet(false, true)) {
+            // Another probe is pinging; never block behind it
+            return health != null ? health : Health.unknown().withDetail("reason", "first check in progress").build();
+        }
+        Future<Health> result;
+        try {
+            result = checker.submit(this::check);
+        } catch (RuntimeException e) {
+            checking.set(false); // shutting down
+            return health != null ? health : Health.unknown().build();
+        }
+        try {
+            return result.get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            // The ping keeps running and replaces this result when it finishes
+            return store(Health.down().withDetail("error", "no connection within " + timeoutSeconds + "s").build());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return health != null ? health : Health.unknown().build();
+        } catch (Exception e) {
+            return store(Health.down().withDetail("error", e.getClass().getSimpleName()).build());
+        }
+    }
+
+    private Health check() {
+        try {
+            boolean primaryValid = true;
+            Map<String, Object> details = new LinkedHashMap<>();
+            for (HikariDataSource pool : pools) {
+                if (pool.isReadOnly()) {
+                    details.put(pool.getPoolName(), poolCounters(pool));
+                    continue;
+                }
+                String result;
+                try (Connection connection = pool.getConnection()) {
+                    result = connection.isValid(timeoutSeconds) ? "valid" : "invalid";
+                } catch (Exception e) {
+                    // Driver messages can name hosts and users; the class is enough for a probe
+                    result = e.getClass().getSimpleName();
+                }
+                primaryValid &= "valid".equals(result);
+                details.put(pool.getPoolName(), result);
+            }
+            return store((primaryValid ? Health.up() : Health.down()).withDetails(details).build());
+        } finally {
+            checking.set(false);
+        }
+    }
+
+    // Pool counters only; reading them opens no connection
+    private static String poolCounters(HikariDataSource pool) {
+        HikariPoolMXBean stats = pool.getHikariPoolMXBean();
+        if (stats == null) {
+            return "not started";
+        }
+        return "active=" + stats.getActiveConnections() + ", idle=" + stats.getIdleConnections();
+    }
+
+    private Health store(Health health) {
+        cached = health;
+        checkedAt = System.currentTimeMillis();
+        return health;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        checker.shutdownNow();
+    }
+}
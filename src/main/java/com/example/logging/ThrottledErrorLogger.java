@@ -0,0 +1,90 @@
+package com.example.logging;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Error logging that aggregates repeats. The first occurrence of an
+ * exception type thrown from a given place logs an ERROR with the full
+ * stack trace; repeats within the window are only counted (and logged at
+ * DEBUG), and the next ERROR for that failure reports how many there were.
+ * Keeps a failing dependency from flooding the log with identical errors.
+ */
+public class ThrottledErrorLogger {
+
+    private static final long DEFAULT_WINDOW_MS = 60_000;
+    private static final int MAX_TRACKED = 1024;
+
+    private final Logger log;
+    private final long windowMs;
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    private static class Window {
+        final AtomicLong lastTraceAt = new AtomicLong();
+        final AtomicLong suppressed = new AtomicLong();
+    }
+
+    public ThrottledErrorLogger(Logger log) {
+        this(log, DEFAULT_WINDOW_MS);
+    }
+
+    ThrottledErrorLogger(Logger log, long windowMs) {
+        this.log = log;
+        this.windowMs = windowMs;
+    }
+
+    /**
+     * Log an error at most once per window for the same failure; repeats are counted
+     * @param message Message; may use {} placeholders for args
+     */
+    public void error(String message, Throwable e, Object... args) {
+        Window window = windowFor(e);
+        long now = System.currentTimeMillis();
+        long last = window.lastTraceAt.get();
+        if (now - last >= windowMs && window.lastTraceAt.compareAndSet(last, now)) {
+            long suppressed = window.suppressed.getAndSet(0);
+            Object[] withTrace = new Object[args.length + 1];
+            System.arraycopy(args, 0, withTrace, 0, args.length);
+            withTrace[args.length] = e;
+            if (suppressed > 0) {
+                log.error(message + " ({} similar errors since the last report)", append(withTrace, suppressed));
+            } else {
+                log.error(message, withTrace);
+            }
+        } else {
+            window.suppressed.incrementAndGet();
+            if (!log.isDebugEnabled()) {
+                return;
+            }
+            Object[] withSummary = new Object[args.length + 1];
+            System.arraycopy(args, 0, withSummary, 0, args.length);
+            withSummary[args.length] = String.valueOf(e);
+            log.debug(message + ": {}", withSummary);
+        }
+    }
+
+    // Trailing throwable must stay last for SLF4J to print it as a stack trace
+    private static Object[] append(Object[] withTrace, long suppressed) {
+        Object[] result = new Object[withTrace.length + 1];
+        System.arraycopy(withTrace, 0, result, 0, withTrace.length - 1);
+        result[withTrace.length - 1] = suppressed;
+        result[withTrace.length] = withTrace[withTrace.length - 1];
+        return result;
+    }
+
+    private Window windowFor(Throwable e) {
+        StackTraceElement[] trace = e.getStackTrace();
+        String key = e.getClass().getName() + (trace.length > 0 ? "@" + trace[0] : "");
+        Window window = windows.get(key);
+        if (window == null) {
+            if (windows.size() >= MAX_TRACKED) {
+                windows.clear(); // many distinct failures; start sampling afresh
+            }
+            window = windows.computeIfAbsent(key, k -> new Window());
+        }
+        return window;
+    }
+}
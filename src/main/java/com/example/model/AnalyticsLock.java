@@ -0,0 +1,18 @@
+package com.example.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Single-row table used as a database-wide read/write lock between
+ * submissions (shared) and analytics rebuilds (exclusive), so the lock
+ * holds across every instance. See AnalyticsService.
+ */
+@Entity
+@Table(name = "analytics_locks")
+public class AnalyticsLock {
+
+    @Id
+    private Long id;
+
+    public Long getId() { return id; }
+}
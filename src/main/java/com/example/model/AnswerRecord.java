@@ -0,0 +1,150 @@
+package com.example.model;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact per-question answers of one test, stored inline on ResultEntity.
+ *
+ * Encoding:
+ * - question IDs: zig-zag delta varints (typically 1-2 bytes per question)
+ * - correctness: packed bitset, bit i set when question i was correct
+ * - choices: one byte per question holding the chosen option index,
+ *   UNANSWERED when skipped, OTHER when the answer matched no option
+ */
+public class AnswerRecord {
+
+    public static final int UNANSWERED = 0xFF;
+    public static final int OTHER = 0xFE;
+
+    private long[] questionIds;
+    private byte[] correctMask;
+    private byte[] choices;
+    private int size;
+
+    public AnswerRecord(int capacity) {
+        this.questionIds = new long[capacity];
+        this.correctMask = new byte[(capacity + 7) >>> 3];
+        this.choices = new byte[capacity];
+    }
+
+    private AnswerRecord(long[] questionIds, byte[] correctMask, byte[] choices) {
+        this.questionIds = questionIds;
+        this.correctMask = correctMask;
+        this.choices = choices;
+        this.size = questionIds.length;
+    }
+
+    /**
+     * Append one answered (or skipped) question
+     * @param questionId Question ID
+     * @param correct Whether the answer was correct
+     * @param choice Chosen option index, UNANSWERED or OTHER
+     */
+    public void add(long questionId, boolean correct, int choice) {
+        if (size == questionIds.length) {
+            int capacity = Math.max(8, size * 2);
+            questionIds = Arrays.copyOf(questionIds, capacity);
+            correctMask = Arrays.copyOf(correctMask, (capacity + 7) >>> 3);
+            choices = Arrays.copyOf(choices, capacity);
+        }
+        questionIds[size] = questionId;
+        if (correct) {
+            correctMask[size >>> 3] |= (byte) (1 << (size & 7));
+        }
+        choices[size] = (byte) choice;
+        size++;
+    }
+
+    /**
+     * Option index of an answer, UNANSWERED or OTHER
+     */
+    public static int choiceOf(String userAnswer, List<String> options) {
+        if (userAnswer == null) {
+            return UNANSWERED;
+        }
+        if (options != null) {
+            for (int i = 0; i < options.size() && i < OTHER; i++) {
+                if (userAnswer.equalsIgnoreCase(options.get(i))) {
+                    return i;
+                }
+            }
+        }
+        return OTHER;
+    }
+
+    public int size() { return size; }
+
+    public long questionId(int i) { return questionIds[i]; }
+
+    public boolean isCorrect(int i) { return (correctMask[i >>> 3] & (1 << (i & 7))) != 0; }
+
+    public int choice(int i) { return choices[i] & 0xFF; }
+
+    // --- Encoding ---
+
+    public byte[] encodeQuestionIds() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size * 2);
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            long delta = questionIds[i] - previous;
+            long zigzag = (delta << 1) ^ (delta >> 63);
+            while ((zigzag & ~0x7FL) != 0) {
+                out.write((int) ((zigzag & 0x7F) | 0x80));
+                zigzag >>>= 7;
+            }
+            out.write((int) zigzag);
+            previous = questionIds[i];
+        }
+        return out.toByteArray();
+    }
+
+    public byte[] encodeCorrectMask() {
+        return Arrays.copyOf(correctMask, (size + 7) >>> 3);
+    }
+
+    public byte[] encodeChoices() {
+        return Arrays.copyOf(choices, size);
+    }
+
+    /**
+     * Decode the stored columns of a result
+     * @param questionIds Encoded question IDs
+     * @param correctMask Packed correctness bitset
+     * @param choices Encoded choices (nullable)
+     */
+    public static AnswerRecord decode(byte[] questionIds, byte[] correctMask, byte[] choices) {
+        long[] ids = decodeQuestionIds(questionIds);
+        byte[] mask = Arrays.copyOf(correctMask, (ids.length + 7) >>> 3);
+        byte[] chosen;
+        if (choices != null) {
+            chosen = Arrays.copyOf(choices, ids.length);
+        } else {
+            chosen = new byte[ids.length];
+            Arrays.fill(chosen, (byte) UNANSWERED);
+        }
+        return new AnswerRecord(ids, mask, chosen);
+    }
+
+    public static long[] decodeQuestionIds(byte[] encoded) {
+        long[] ids = new long[encoded.length];
+        int count = 0;
+        long previous = 0;
+        int pos = 0;
+        while (pos < encoded.length) {
+            long zigzag = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = encoded[pos++];
+                zigzag |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            long delta = (zigzag >>> 1) ^ -(zigzag & 1);
+            previous += delta;
+            ids[count++] = previous;
+        }
+        return Arrays.copyOf(ids, count);
+    }
+}
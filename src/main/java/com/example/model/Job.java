@@ -3,7 +3,8 @@ package com.example.model;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "jobs")
+@Table(name = "jobs",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"recruiter_id", "external_key"}))
 public class Job {
     @Id 
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -21,6 +22,9 @@ public class Job {
     @Column(name = "recruiter_id")
     private Long recruiterId;
 
+    @Column(name = "external_key", length = 191)
+    private String externalKey; // partner's own job id, unique per recruiter (bulk sync)
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -36,4 +40,7 @@ public class Job {
     
     public Long getRecruiterId() { return recruiterId; }
     public void setRecruiterId(Long recruiterId) { this.recruiterId = recruiterId; }
+
+    public String getExternalKey() { return externalKey; }
+    public void setExternalKey(String externalKey) { this.externalKey = externalKey; }
 }
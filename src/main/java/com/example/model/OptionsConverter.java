@@ -0,0 +1,45 @@
+package com.example.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores a question's options inline as a JSON array, e.g. ["HTML","Java","CSS"],
+ * so reading a question needs no second query and updating it rewrites one column.
+ */
+@Converter
+public class OptionsConverter implements AttributeConverter<List<String>, String> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<List<String>> LIST_OF_STRINGS = new TypeReference<>() {};
+
+    @Override
+    public String convertToDatabaseColumn(List<String> options) {
+        if (options == null) {
+            return null;
+        }
+        try {
+            return MAPPER.writeValueAsString(options);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot encode question options", e);
+        }
+    }
+
+    @Override
+    public List<String> convertToEntityAttribute(String json) {
+        if (json == null || json.isEmpty()) {
+            return null;
+        }
+        try {
+            return new ArrayList<>(MAPPER.readValue(json, LIST_OF_STRINGS));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot decode question options", e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.model;
+
+/**
+ * Where question options are read from, set once at startup from
+ * skillfit.questions.options-storage.
+ *
+ * INLINE (default) reads the options_data JSON column on questions.
+ * TABLE reads the legacy question_options rows, one extra query per
+ * question, and is kept to compare the two layouts or to roll back.
+ * Every write keeps options_data current in both modes, so switching
+ * back to INLINE needs no migration. QuestionOptionsMigration fills the
+ * side that is missing when a mode is switched on; options edited while
+ * in INLINE mode are not copied back to existing table rows.
+ */
+public enum OptionsStorage {
+    INLINE,
+    TABLE;
+
+    private static volatile OptionsStorage current = INLINE;
+
+    public static OptionsStorage current() { return current; }
+
+    public static void use(OptionsStorage storage) { current = storage; }
+}
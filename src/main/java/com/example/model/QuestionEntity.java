@@ -1,6 +1,9 @@
 package com.example.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.SQLOrder;
+
+import java.util.ArrayList;
 import java.util.List;
 
 @Entity
@@ -13,10 +16,17 @@ public class QuestionEntity {
     @Column(columnDefinition = "TEXT")
     private String questionText;
 
+    // Inline JSON array; the options read in INLINE storage mode (see OptionsStorage)
+    @Convert(converter = OptionsConverter.class)
+    @Column(name = "options_data", columnDefinition = "TEXT")
+    private List<String> options;
+
+    // Legacy layout, read and written only in TABLE storage mode; option_seq keeps list order
     @ElementCollection
     @CollectionTable(name = "question_options", joinColumns = @JoinColumn(name = "question_id"))
     @Column(name = "option_value", columnDefinition = "TEXT")
-    private List<String> options;
+    @SQLOrder("option_seq")
+    private List<String> tableOptions = new ArrayList<>();
 
     private String correctAnswer;
 
@@ -35,8 +45,19 @@ public class QuestionEntity {
     public String getQuestionText() { return questionText; }
     public void setQuestionText(String questionText) { this.questionText = questionText; }
 
-    public List<String> getOptions() { return options; }
-    public void setOptions(List<String> options) { this.options = options; }
+    public List<String> getOptions() {
+        return OptionsStorage.current() == OptionsStorage.TABLE ? tableOptions : options;
+    }
+
+    public void setOptions(List<String> options) {
+        this.options = options;
+        if (OptionsStorage.current() == OptionsStorage.TABLE) {
+            tableOptions.clear();
+            if (options != null) {
+                tableOptions.addAll(options);
+            }
+        }
+    }
 
     public String getCorrectAnswer() { return correctAnswer; }
     public void setCorrectAnswer(String correctAnswer) { this.correctAnswer = correctAnswer; }
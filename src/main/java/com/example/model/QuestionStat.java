@@ -0,0 +1,26 @@
+package com.example.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Running answer counts per question, maintained on submission by AnalyticsService.
+ */
+@Entity
+@Table(name = "question_stats")
+public class QuestionStat {
+
+    @Id
+    @Column(name = "question_id")
+    private Long questionId;
+
+    private long attempts;
+
+    @Column(name = "correct_count")
+    private long correctCount;
+
+    // --- Getters ---
+
+    public Long getQuestionId() { return questionId; }
+    public long getAttempts() { return attempts; }
+    public long getCorrectCount() { return correctCount; }
+}
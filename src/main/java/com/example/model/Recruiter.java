@@ -12,7 +12,7 @@ public class Recruiter {
 
     private String name;
     private String email;
-    private String password;  // (Later we can use BCrypt)
+    private String password;  // BCrypt hash (older rows may still be plaintext until next login)
     private String company;
     private String role; // HR or CEO
     private String location;
@@ -4,7 +4,8 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "results")
+@Table(name = "results",
+       indexes = @Index(name = "idx_results_student_taken", columnList = "student_id, taken_at, id")) // history pages
 public class ResultEntity {
 
     @Id
@@ -21,6 +22,23 @@ public class ResultEntity {
     
     @Column(name = "recruiter_id")
     private Long recruiterId; // Link result to the recruiter whose questions were used
+    
+    @Column(name = "job_id")
+    private Long jobId; // Job the test was taken for (null means general test)
+    
+    // Per-question answers, see AnswerRecord for the encoding. Lazy (bytecode-enhanced):
+    // item analysis reads them with JDBC, so loading a result never fetches them.
+    @Basic(fetch = FetchType.LAZY)
+    @Column(name = "question_ids", columnDefinition = "BLOB")
+    private byte[] questionIds;
+    
+    @Basic(fetch = FetchType.LAZY)
+    @Column(name = "correct_mask", columnDefinition = "BLOB")
+    private byte[] correctMask;
+    
+    @Basic(fetch = FetchType.LAZY)
+    @Column(name = "answer_choices", columnDefinition = "BLOB")
+    private byte[] answerChoices;
 
     // --- Getters & Setters ---
 
@@ -43,4 +61,18 @@ public class ResultEntity {
     
     public Long getRecruiterId() { return recruiterId; }
     public void setRecruiterId(Long recruiterId) { this.recruiterId = recruiterId; }
+    
+    public Long getJobId() { return jobId; }
+    public void setJobId(Long jobId) { this.jobId = jobId; }
+    
+    public AnswerRecord getAnswerRecord() {
+        return questionIds != null && correctMask != null
+            ? AnswerRecord.decode(questionIds, correctMask, answerChoices)
+            : null;
+    }
+    public void setAnswerRecord(AnswerRecord record) {
+        this.questionIds = record != null ? record.encodeQuestionIds() : null;
+        this.correctMask = record != null ? record.encodeCorrectMask() : null;
+        this.answerChoices = record != null ? record.encodeChoices() : null;
+    }
 }
@@ -0,0 +1,47 @@
+package com.example.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated test results: one row per recruiter, job, day and score
+ * decile. Maintained incrementally on submission by AnalyticsService.
+ */
+@Entity
+@Table(name = "result_rollups",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"recruiter_id", "job_id", "rollup_day", "score_bucket"}))
+public class ResultRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "recruiter_id", nullable = false)
+    private long recruiterId; // 0 when the result has no recruiter
+
+    @Column(name = "job_id", nullable = false)
+    private long jobId; // 0 for general tests
+
+    @Column(name = "rollup_day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "score_bucket", nullable = false)
+    private int scoreBucket; // score percentage / 10, 0..10
+
+    private long tests;
+    private long passed;
+
+    @Column(name = "score_pct_sum")
+    private long scorePctSum; // sum of score percentages, for averages
+
+    // --- Getters ---
+
+    public Long getId() { return id; }
+    public long getRecruiterId() { return recruiterId; }
+    public long getJobId() { return jobId; }
+    public LocalDate getDay() { return day; }
+    public int getScoreBucket() { return scoreBucket; }
+    public long getTests() { return tests; }
+    public long getPassed() { return passed; }
+    public long getScorePctSum() { return scorePctSum; }
+}
@@ -16,7 +16,7 @@ public class Student {
     private int score;
     private String college;
     private String degree;
-    private String resumePath; // Path to uploaded resume file
+    private String resumePath; // Resume store key ("<sha256>.<ext>"), see ResumeStorageService
 
     // --- Getters and Setters ---
 
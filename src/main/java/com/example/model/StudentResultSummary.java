@@ -0,0 +1,63 @@
+package com.example.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Running summary of a student's results: one row over all tests
+ * (recruiter 0) and one per recruiter. Maintained incrementally on
+ * submission by AssessmentHistoryService, so reading it costs the same
+ * however long the history is.
+ */
+@Entity
+@Table(name = "student_result_summaries",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"student_id", "recruiter_id"}))
+public class StudentResultSummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "student_id", nullable = false)
+    private long studentId;
+
+    @Column(name = "recruiter_id", nullable = false)
+    private long recruiterId; // 0 = all of the student's tests
+
+    private long tests;
+
+    @Column(name = "best_score_pct")
+    private int bestScorePct;
+
+    @Column(name = "score_pct_sum")
+    private long scorePctSum; // sum of score percentages, for the mean
+
+    @Column(name = "ema_score_pct")
+    private double emaScorePct; // exponential moving average of score percentages (trend)
+
+    @Column(name = "latest_score")
+    private int latestScore;
+
+    @Column(name = "latest_total_questions")
+    private int latestTotalQuestions;
+
+    @Column(name = "latest_level")
+    private String latestLevel;
+
+    @Column(name = "latest_taken_at")
+    private LocalDateTime latestTakenAt;
+
+    // --- Getters ---
+
+    public Long getId() { return id; }
+    public long getStudentId() { return studentId; }
+    public long getRecruiterId() { return recruiterId; }
+    public long getTests() { return tests; }
+    public int getBestScorePct() { return bestScorePct; }
+    public long getScorePctSum() { return scorePctSum; }
+    public double getEmaScorePct() { return emaScorePct; }
+    public int getLatestScore() { return latestScore; }
+    public int getLatestTotalQuestions() { return latestTotalQuestions; }
+    public String getLatestLevel() { return latestLevel; }
+    public LocalDateTime getLatestTakenAt() { return latestTakenAt; }
+}
@@ -0,0 +1,7 @@
+package com.example.repository;
+
+import com.example.model.QuestionStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface QuestionStatRepository extends JpaRepository<QuestionStat, Long> {
+}
@@ -2,9 +2,20 @@ package com.example.repository;
 
 import com.example.model.Recruiter;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
 
 public interface RecruiterRepository extends JpaRepository<Recruiter, Long> {
     Optional<Recruiter> findByEmail(String email);
+
+    // Only replaces the password if it has not changed since it was read
+    @Transactional
+    @Modifying
+    @Query("UPDATE Recruiter r SET r.password = :newPassword WHERE r.id = :id AND r.password = :oldPassword")
+    int replacePassword(@Param("id") Long id, @Param("oldPassword") String oldPassword,
+                        @Param("newPassword") String newPassword);
 }
 
@@ -2,10 +2,35 @@ package com.example.repository;
 
 import com.example.model.Student;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
 import java.util.Optional;   // <-- FIX: import Optional
 
 public interface StudentRepository extends JpaRepository<Student, Long> {
 
     // Correctly placed inside the interface
     Optional<Student> findByEmail(String email);
+
+    // Campaign recipients in one query; null filters are ignored
+    @Query("select s from Student s where (:level is null or s.level = :level) " +
+           "and (:minScore is null or s.score >= :minScore) " +
+           "and (:maxScore is null or s.score <= :maxScore) " +
+           "and (:resultRecruiterId is null or exists " +
+           "(select r.id from ResultEntity r where r.student = s and r.recruiterId = :resultRecruiterId))")
+    List<Student> findCampaignRecipients(@Param("level") String level,
+                                         @Param("minScore") Integer minScore,
+                                         @Param("maxScore") Integer maxScore,
+                                         @Param("resultRecruiterId") Long resultRecruiterId);
+
+    // Resume key only, without loading the student
+    @Query("select s.resumePath from Student s where s.id = :id")
+    Optional<String> findResumePathById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Student s SET s.resumePath = :resumePath WHERE s.id = :id")
+    int updateResumePath(@Param("id") Long id, @Param("resumePath") String resumePath);
 }
@@ -0,0 +1,42 @@
+package com.example.security;
+
+import com.example.exception.ApiException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Guard for operator-only endpoints. There are no admin accounts, so the
+ * caller presents the shared secret from skillfit.admin.token in the
+ * X-Admin-Token header; with no secret configured these endpoints are off.
+ */
+@Component
+public class AdminAuth {
+
+    public static final String HEADER = "X-Admin-Token";
+
+    private final byte[] token;
+
+    public AdminAuth(@Value("${skillfit.admin.token:}") String token) {
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The request must carry the admin token
+     * @throws ApiException 401 without the header, 403 when it is wrong or admin access is disabled
+     */
+    public void require(HttpServletRequest request) {
+        String presented = request.getHeader(HEADER);
+        if (presented == null || presented.isEmpty()) {
+            throw new ApiException(HttpStatus.UNAUTHORIZED, "UNAUTHORIZED", "An admin token is required");
+        }
+        // Constant-time compare; an empty configured token never matches
+        if (token.length == 0 || !MessageDigest.isEqual(token, presented.getBytes(StandardCharsets.UTF_8))) {
+            throw new ApiException(HttpStatus.FORBIDDEN, "FORBIDDEN", "Not allowed for this account");
+        }
+    }
+}
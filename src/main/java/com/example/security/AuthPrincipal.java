@@ -0,0 +1,105 @@
+package com.example.security;
+
+import com.example.exception.ApiException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Identity carried by a verified token. Set as a request attribute by
+ * TokenAuthenticationFilter; absent when the request has no valid token.
+ *
+ * User-scoped endpoints call one of the require methods: 401 without a
+ * token, 403 when the token belongs to someone else. A matching principal
+ * also proves the account exists, so no lookup is needed for that.
+ */
+public class AuthPrincipal {
+
+    public static final String ATTRIBUTE = AuthPrincipal.class.getName();
+
+    public static final String STUDENT = "student";
+    public static final String RECRUITER = "recruiter";
+
+    private final String role;
+    private final long id;
+
+    public AuthPrincipal(String role, long id) {
+        this.role = role;
+        this.id = id;
+    }
+
+    public String getRole() { return role; }
+    public long getId() { return id; }
+
+    /**
+     * Principal of the current request, or null
+     */
+    public static AuthPrincipal from(HttpServletRequest request) {
+        return (AuthPrincipal) request.getAttribute(ATTRIBUTE);
+    }
+
+    /**
+     * Principal of the current request
+     * @throws ApiException 401 when the request carries no valid token
+     */
+    public static AuthPrincipal require(HttpServletRequest request) {
+        AuthPrincipal principal = from(request);
+        if (principal == null) {
+            throw new ApiException(HttpStatus.UNAUTHORIZED, "UNAUTHORIZED", "A valid sign-in token is required");
+        }
+        return principal;
+    }
+
+    /**
+     * Principal of the current request, which must have the given role
+     * @throws ApiException 401 without a token, 403 for another role
+     */
+    public static AuthPrincipal requireRole(HttpServletRequest request, String role) {
+        AuthPrincipal principal = require(request);
+        if (!role.equals(principal.role)) {
+            throw forbidden();
+        }
+        return principal;
+    }
+
+    /**
+     * The request must be authenticated as this student
+     * @throws ApiException 401 without a token, 403 for anyone else
+     */
+    public static void requireStudent(HttpServletRequest request, Long studentId) {
+        AuthPrincipal principal = requireRole(request, STUDENT);
+        if (studentId == null || principal.id != studentId) {
+            throw forbidden();
+        }
+    }
+
+    /**
+     * The request must be authenticated as this recruiter
+     * @throws ApiException 401 without a token, 403 for anyone else
+     */
+    public static void requireRecruiter(HttpServletRequest request, Long recruiterId) {
+        AuthPrincipal principal = requireRole(request, RECRUITER);
+        if (recruiterId == null || principal.id != recruiterId) {
+            throw forbidden();
+        }
+    }
+
+    private static ApiException forbidden() {
+        return new ApiException(HttpStatus.FORBIDDEN, "FORBIDDEN", "Not allowed for this account");
+    }
+
+    /**
+     * Whether the request is authenticated as this student; such ids need no existence check
+     */
+    public static boolean isStudent(HttpServletRequest request, Long studentId) {
+        AuthPrincipal principal = from(request);
+        return principal != null && STUDENT.equals(principal.role) && studentId != null && principal.id == studentId;
+    }
+
+    /**
+     * Whether the request is authenticated as this recruiter
+     */
+    public static boolean isRecruiter(HttpServletRequest request, Long recruiterId) {
+        AuthPrincipal principal = from(request);
+        return principal != null && RECRUITER.equals(principal.role) && recruiterId != null && principal.id == recruiterId;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.security;
+
+import com.example.exception.ApiException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * BCrypt hashing and verification on a small dedicated pool. Each hash is
+ * deliberately slow (tens of milliseconds), so running it on request
+ * threads would let a burst of logins starve every other endpoint. The
+ * pool bounds how many hashes run at once; when its queue is full callers
+ * get 503 instead of piling up.
+ *
+ * Passwords stored before hashing was introduced are plaintext. They are
+ * still accepted (compared in constant time, after a dummy BCrypt check so
+ * the response takes as long as for a hashed account) and reported by
+ * needsRehash, as are hashes made with a lower strength than configured.
+ */
+@Service
+public class PasswordHashingService {
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private final BCryptPasswordEncoder encoder;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    // Verified against when the account does not exist, so both cases take the same time
+    private String dummyHash;
+
+    public PasswordHashingService(@Value("${skillfit.auth.bcrypt-strength:10}") int strength,
+                                  @Value("${skillfit.auth.hash-threads:0}") int threads,
+                                  @Value("${skillfit.auth.hash-queue-capacity:200}") int queueCapacity) {
+        this.strength = strength;
+        this.encoder = new BCryptPasswordEncoder(strength);
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), r -> {
+                Thread t = new Thread(r, "password-hash-" + threadCount.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+    }
+
+    // Time one hash so the configured strength can be checked against peak login rate
+    @PostConstruct
+    void calibrate() {
+        long start = System.nanoTime();
+        dummyHash = encoder.encode("calibration");
+        long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.info("BCrypt strength {} takes ~{} ms per hash; {} hash threads sustain ~{} logins/s",
+            strength, millis, executor.getMaximumPoolSize(), executor.getMaximumPoolSize() * 1000 / millis);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Hash a password on the hashing pool
+     */
+    public CompletableFuture<String> hash(String rawPassword) {
+        return submit(() -> encoder.encode(rawPassword));
+    }
+
+    /**
+     * Check a password against a stored value (BCrypt hash or legacy plaintext)
+     * @param stored Stored password; null when the account does not exist
+     */
+    public CompletableFuture<Boolean> verify(String rawPassword, String stored) {
+        if (rawPassword == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        if (stored != null && !isHashed(stored)) {
+            return submit(() -> {
+                encoder.matches(rawPassword, dummyHash); // timing must not reveal unmigrated accounts
+                return MessageDigest.isEqual(
+                    stored.getBytes(StandardCharsets.UTF_8), rawPassword.getBytes(StandardCharsets.UTF_8));
+            });
+        }
+        String hash = stored != null ? stored : dummyHash;
+        return submit(() -> encoder.matches(rawPassword, hash) && stored != null);
+    }
+
+    /**
+     * Whether a stored password should be replaced with a fresh hash after a successful login
+     */
+    public boolean needsRehash(String stored) {
+        return !isHashed(stored) || encoder.upgradeEncoding(stored);
+    }
+
+    private static boolean isHashed(String stored) {
+        return stored.length() == 60 && (stored.startsWith("$2a$") || stored.startsWith("$2b$") || stored.startsWith("$2y$"));
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "BUSY", "Server is busy. Please try again shortly.");
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.security;
+
+import com.example.exception.RateLimitedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limits for the auth endpoints. Each action has three budgets,
+ * checked in order: per client IP, per email address and global. A
+ * request refused by a later budget gives back the permits it took from
+ * the earlier ones, so e.g. a locked-out email does not also spend the
+ * caller's IP budget. Limits are requests per minute, configured as
+ * skillfit.rate-limit.{action}.{per-ip|per-email|global}.
+ *
+ * Rejections are counted in the skillfit.ratelimit.rejected metric,
+ * tagged by action and scope.
+ */
+@Service
+public class RateLimitService {
+
+    public static final String REGISTER = "register";     // sends an OTP email
+    public static final String VERIFY_OTP = "verify-otp"; // guards against OTP guessing
+    public static final String LOGIN = "login";
+
+    private static final int STRIPES = 4096;
+
+    private final Map<String, Policy> policies = new HashMap<>();
+
+    // The three buckets of one action, with their rejection counters
+    private static class Policy {
+        final RateLimiter perIp;
+        final RateLimiter perEmail;
+        final RateLimiter global;
+        final Counter ipRejected;
+        final Counter emailRejected;
+        final Counter globalRejected;
+
+        Policy(String action, Environment env, MeterRegistry registry,
+               int perIpDefault, int perEmailDefault, int globalDefault) {
+            String prefix = "skillfit.rate-limit." + action + ".";
+            perIp = new RateLimiter(env.getProperty(prefix + "per-ip", Integer.class, perIpDefault), 1, TimeUnit.MINUTES, STRIPES);
+            perEmail = new RateLimiter(env.getProperty(prefix + "per-email", Integer.class, perEmailDefault), 1, TimeUnit.MINUTES, STRIPES);
+            global = new RateLimiter(env.getProperty(prefix + "global", Integer.class, globalDefault), 1, TimeUnit.MINUTES, 1);
+            ipRejected = rejectedCounter(registry, action, "ip");
+            emailRejected = rejectedCounter(registry, action, "email");
+            globalRejected = rejectedCounter(registry, action, "global");
+        }
+
+        private static Counter rejectedCounter(MeterRegistry registry, String action, String scope) {
+            return Counter.builder("skillfit.ratelimit.rejected")
+                .description("Requests refused by a rate limit")
+                .tag("action", action)
+                .tag("scope", scope)
+                .register(registry);
+        }
+    }
+
+    public RateLimitService(Environment env, MeterRegistry registry) {
+        policies.put(REGISTER, new Policy(REGISTER, env, registry, 5, 3, 120));
+        policies.put(VERIFY_OTP, new Policy(VERIFY_OTP, env, registry, 20, 5, 600));
+        policies.put(LOGIN, new Policy(LOGIN, env, registry, 20, 10, 1200));
+    }
+
+    /**
+     * Take a permit for the action, throwing RateLimitedException (429) when any budget is spent
+     * @param clientIp Caller's address
+     * @param email Email the request is about (nullable)
+     */
+    public void check(String action, String clientIp, String email) {
+        Policy policy = policies.get(action);
+        if (policy == null) {
+            throw new IllegalArgumentException("Unknown rate limit action: " + action);
+        }
+        String ipKey = clientIp != null ? clientIp : "";
+        String emailKey = email != null && !email.isBlank() ? email.trim().toLowerCase(Locale.ROOT) : null;
+
+        reject(policy.perIp.tryAcquire(ipKey), policy.ipRejected);
+        if (emailKey != null) {
+            long wait = policy.perEmail.tryAcquire(emailKey);
+            if (wait > 0) {
+                policy.perIp.refund(ipKey);
+                reject(wait, policy.emailRejected);
+            }
+        }
+        long wait = policy.global.tryAcquire(action);
+        if (wait > 0) {
+            policy.perIp.refund(ipKey);
+            if (emailKey != null) {
+                policy.perEmail.refund(emailKey);
+            }
+            reject(wait, policy.globalRejected);
+        }
+    }
+
+    /**
+     * Clear every budget (after a CRaC restore)
+     */
+    public void reset() {
+        for (Policy policy : policies.values()) {
+            policy.perIp.reset();
+            policy.perEmail.reset();
+            policy.global.reset();
+        }
+    }
+
+    private static void reject(long waitNanos, Counter rejected) {
+        if (waitNanos > 0) {
+            rejected.increment();
+            throw new RateLimitedException(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)));
+        }
+    }
+}
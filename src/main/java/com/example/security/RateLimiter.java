@@ -0,0 +1,92 @@
+package com.example.security;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free token bucket using GCRA (generic cell rate algorithm). Each
+ * bucket is a single long, its "theoretical arrival time", updated with a
+ * CAS, so there is no refill thread and no per-key object.
+ *
+ * Keys are hashed onto a fixed array of stripes instead of a growing map:
+ * memory stays constant however many IPs or emails are seen. Keys that
+ * share a stripe share a budget, which only ever makes the limit stricter.
+ */
+public class RateLimiter {
+
+    private final AtomicLongArray buckets;
+    private final int mask;
+    private final int seed = ThreadLocalRandom.current().nextInt(); // unpredictable stripe mapping
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final long originNanos = System.nanoTime();
+
+    /**
+     * @param permits Requests allowed per period, also the burst size
+     * @param period Length of the period
+     * @param stripes Number of buckets (rounded up to a power of two)
+     */
+    public RateLimiter(int permits, long period, TimeUnit unit, int stripes) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.buckets = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.emissionIntervalNanos = unit.toNanos(period) / permits;
+        this.burstToleranceNanos = emissionIntervalNanos * (permits - 1);
+    }
+
+    /**
+     * Take one permit for the key
+     * @return 0 if allowed, otherwise nanoseconds until a permit is available
+     */
+    public long tryAcquire(String key) {
+        int index = stripe(key);
+        long now = System.nanoTime() - originNanos;
+        while (true) {
+            long tat = buckets.get(index);
+            long start = Math.max(tat, now);
+            long wait = start - now - burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (buckets.compareAndSet(index, tat, start + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Give back a permit taken by tryAcquire, e.g. when a later check rejected the request
+     */
+    public void refund(String key) {
+        int index = stripe(key);
+        while (true) {
+            long tat = buckets.get(index);
+            if (buckets.compareAndSet(index, tat, tat - emissionIntervalNanos)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Forget all buckets, e.g. after a CRaC restore so clones do not inherit the image's state
+     */
+    public void reset() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0L);
+        }
+    }
+
+    private int stripe(String key) {
+        int h = key.hashCode() ^ seed;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h & mask;
+    }
+}
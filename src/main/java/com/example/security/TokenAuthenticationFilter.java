@@ -0,0 +1,54 @@
+package com.example.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Verifies an "Authorization: Bearer" token and exposes the principal as
+ * a request attribute (see AuthPrincipal.from). Requests without a valid
+ * token still go through, just without a principal.
+ *
+ * Event streams also accept the token as an access_token query parameter,
+ * because the browser EventSource API cannot set headers.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+    private static final String STREAM_TOKEN_PARAM = "access_token";
+
+    private final TokenService tokenService;
+
+    public TokenAuthenticationFilter(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        String token = null;
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            token = header.substring(BEARER.length()).trim();
+        } else if ("GET".equals(request.getMethod()) && request.getRequestURI().endsWith("/stream")) {
+            token = request.getParameter(STREAM_TOKEN_PARAM);
+        }
+        if (token != null) {
+            AuthPrincipal principal = tokenService.verify(token);
+            if (principal != null) {
+                request.setAttribute(AuthPrincipal.ATTRIBUTE, principal);
+            }
+        }
+        chain.doFilter(request, response);
+    }
+}
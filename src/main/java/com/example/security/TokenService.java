@@ -0,0 +1,128 @@
+package com.example.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Issues and verifies compact signed tokens (JWT, HS256) carrying the
+ * principal's role and id. Verification is one HMAC over a few hundred
+ * bytes with a per-thread Mac already initialised with the key, so it
+ * costs microseconds and no database access.
+ *
+ * The key comes from skillfit.auth.token-secret (base64, at least 32
+ * bytes). Without one a random key is generated, which means tokens do
+ * not survive a restart and are not accepted by other instances.
+ */
+@Service
+public class TokenService {
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final String HEADER = ENCODER.encodeToString(
+        "{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+    private final SecretKeySpec key;
+    private final long ttlSeconds;
+    private final ObjectMapper objectMapper;
+    private final ThreadLocal<Mac> macs;
+
+    public TokenService(@Value("${skillfit.auth.token-secret:}") String secret,
+                        @Value("${skillfit.auth.token-ttl-minutes:720}") long ttlMinutes,
+                        ObjectMapper objectMapper) {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+            log.warn("skillfit.auth.token-secret is not set; using a random key, tokens will not survive a restart");
+        } else {
+            keyBytes = Base64.getDecoder().decode(secret.trim());
+            if (keyBytes.length < 32) {
+                throw new IllegalStateException("skillfit.auth.token-secret must be at least 32 bytes (base64)");
+            }
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.ttlSeconds = ttlMinutes * 60;
+        this.objectMapper = objectMapper;
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 not available", e);
+            }
+        });
+    }
+
+    /**
+     * Issue a token for a student or recruiter
+     * @param role AuthPrincipal.STUDENT or AuthPrincipal.RECRUITER
+     */
+    public String issue(String role, long id) {
+        long now = System.currentTimeMillis() / 1000;
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("sub", Long.toString(id));
+        claims.put("role", role);
+        claims.put("iat", now);
+        claims.put("exp", now + ttlSeconds);
+        String payload;
+        try {
+            payload = ENCODER.encodeToString(objectMapper.writeValueAsBytes(claims));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot encode token claims", e);
+        }
+        String signingInput = HEADER + "." + payload;
+        return signingInput + "." + ENCODER.encodeToString(sign(signingInput));
+    }
+
+    /**
+     * Verify a token's signature and expiry
+     * @return The principal, or null if the token is malformed, forged or expired
+     */
+    public AuthPrincipal verify(String token) {
+        // Only tokens we issue are accepted, so the header must match ours exactly
+        int firstDot = HEADER.length();
+        int lastDot = token.lastIndexOf('.');
+        if (lastDot <= firstDot || !token.startsWith(HEADER) || token.charAt(firstDot) != '.') {
+            return null;
+        }
+        try {
+            byte[] signature = DECODER.decode(token.substring(lastDot + 1));
+            if (!MessageDigest.isEqual(signature, sign(token.substring(0, lastDot)))) {
+                return null;
+            }
+            JsonNode claims = objectMapper.readTree(DECODER.decode(token.substring(firstDot + 1, lastDot)));
+            if (claims.path("exp").asLong(0) < System.currentTimeMillis() / 1000) {
+                return null;
+            }
+            String role = claims.path("role").asText();
+            if (!AuthPrincipal.STUDENT.equals(role) && !AuthPrincipal.RECRUITER.equals(role)) {
+                return null;
+            }
+            return new AuthPrincipal(role, Long.parseLong(claims.path("sub").asText()));
+        } catch (IllegalArgumentException | IOException e) {
+            return null;
+        }
+    }
+
+    private byte[] sign(String signingInput) {
+        return macs.get().doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,340 @@
+package com.example.service;
+
+import com.example.model.AnswerRecord;
+import com.example.model.QuestionEntity;
+import com.example.model.QuestionStat;
+import com.example.model.ResultEntity;
+import com.example.model.Student;
+import com.example.repository.QuestionStatRepository;
+import com.example.repository.StudentRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Adaptive (Rasch/Elo-style) test sessions. Questions are calibrated from
+ * question_stats into a difficulty-ordered bank; each step serves the unseen
+ * question closest to the candidate's current ability estimate and stops as
+ * soon as the estimate is precise enough. Session state lives only in memory
+ * until the single ResultEntity is written at the end.
+ */
+@Service
+public class AdaptiveTestService {
+
+    private static final long BANK_TTL_MS = 5 * 60 * 1000; // 5 minutes
+    private static final double MAX_ABILITY = 4.0;
+    private static final double MAX_STEP = 1.0;
+
+    private final QuestionBankService questionBankService;
+    private final QuestionStatRepository questionStatRepository;
+    private final StudentRepository studentRepository;
+    private final ResultService resultService;
+
+    private final SessionStore<Session> sessions;
+    private final Map<Long, ItemBank> banks = new ConcurrentHashMap<>();
+    private final int minQuestions;
+    private final int maxQuestions;
+    private final double targetStandardError;
+
+    public AdaptiveTestService(QuestionBankService questionBankService, QuestionStatRepository questionStatRepository,
+                               StudentRepository studentRepository,
+                               ResultService resultService,
+                               @Value("${skillfit.adaptive.max-sessions:10000}") int maxSessions,
+                               @Value("${skillfit.adaptive.session-timeout-ms:1800000}") long sessionTimeoutMs,
+                               @Value("${skillfit.adaptive.min-questions:5}") int minQuestions,
+                               @Value("${skillfit.adaptive.max-questions:20}") int maxQuestions,
+                               @Value("${skillfit.adaptive.target-standard-error:0.5}") double targetStandardError) {
+        this.questionBankService = questionBankService;
+        this.questionStatRepository = questionStatRepository;
+        this.studentRepository = studentRepository;
+        this.resultService = resultService;
+        this.sessions = new SessionStore<>(maxSessions, sessionTimeoutMs);
+        this.minQuestions = minQuestions;
+        this.maxQuestions = maxQuestions;
+        this.targetStandardError = targetStandardError;
+    }
+
+    // Calibrated question, ordered by difficulty then ID
+    private static class Item implements Comparable<Item> {
+        final QuestionEntity question;
+        final double difficulty;
+        final long id;
+
+        Item(QuestionEntity question, double difficulty) {
+            this(question, difficulty, question.getId());
+        }
+
+        private Item(QuestionEntity question, double difficulty, long id) {
+            this.question = question;
+            this.difficulty = difficulty;
+            this.id = id;
+        }
+
+        // Search key sorting before every item of the same difficulty
+        static Item probe(double difficulty) {
+            return new Item(null, difficulty, Long.MIN_VALUE);
+        }
+
+        @Override
+        public int compareTo(Item o) {
+            int c = Double.compare(difficulty, o.difficulty);
+            return c != 0 ? c : Long.compare(id, o.id);
+        }
+    }
+
+    // Immutable difficulty index for one job (or the general bank)
+    private static class ItemBank {
+        final NavigableSet<Item> items;
+        final Long recruiterId;
+        final QuestionBankService.QuestionBank source; // snapshot the index was built from
+        final long builtAt = System.currentTimeMillis();
+
+        ItemBank(NavigableSet<Item> items, Long recruiterId, QuestionBankService.QuestionBank source) {
+            this.items = items;
+            this.recruiterId = recruiterId;
+            this.source = source;
+        }
+
+        // Unseen item closest to the given ability: O(log n) plus skipped seen items
+        Item closest(double ability, Set<Long> seen) {
+            Item probe = Item.probe(ability);
+            Item above = firstUnseen(items.tailSet(probe, true).iterator(), seen);
+            Item below = firstUnseen(items.headSet(probe, false).descendingIterator(), seen);
+            if (above == null) return below;
+            if (below == null) return above;
+            return above.difficulty - ability <= ability - below.difficulty ? above : below;
+        }
+
+        private static Item firstUnseen(Iterator<Item> it, Set<Long> seen) {
+            while (it.hasNext()) {
+                Item item = it.next();
+                if (!seen.contains(item.id)) {
+                    return item;
+                }
+            }
+            return null;
+        }
+    }
+
+    // Per-candidate state
+    private static class Session {
+        final Long studentId;
+        final Long jobId;
+        final ItemBank bank;
+        final Set<Long> seen = new HashSet<>();
+        final AnswerRecord answers;
+        double ability;
+        double information;
+        int correct;
+        Item current;
+        boolean finished;
+
+        Session(Long studentId, Long jobId, ItemBank bank, int maxQuestions) {
+            this.studentId = studentId;
+            this.jobId = jobId;
+            this.bank = bank;
+            this.answers = new AnswerRecord(maxQuestions);
+        }
+
+        double standardError() {
+            return information > 0 ? 1.0 / Math.sqrt(information) : Double.POSITIVE_INFINITY;
+        }
+    }
+
+    /**
+     * Start an adaptive session
+     * @param studentId Signed-in student; the caller has checked the token
+     * @return sessionId and the first question, or an "error" entry
+     */
+    public Map<String, Object> start(Long studentId, Long jobId) {
+        Map<String, Object> res = new HashMap<>();
+        ItemBank bank = getBank(jobId);
+        if (bank.items.isEmpty()) {
+            res.put("error", "No questions available for adaptive testing");
+            return res;
+        }
+
+        Session session = new Session(studentId, jobId, bank, maxQuestions);
+        Optional<String> sessionId = sessions.add(session);
+        if (!sessionId.isPresent()) {
+            res.put("error", "Too many active test sessions, please retry later");
+            return res;
+        }
+        synchronized (session) {
+            session.current = bank.closest(session.ability, session.seen);
+            res.put("sessionId", sessionId.get());
+            res.putAll(progress(session));
+        }
+        return res;
+    }
+
+    /**
+     * Answer the current question and get the next one, or the final result
+     * @param studentId Signed-in student; another student's session is reported as not found
+     */
+    public Map<String, Object> answer(String sessionId, Long studentId, Long questionId, String answer) {
+        Map<String, Object> res = new HashMap<>();
+        Optional<Session> sessionOpt = sessions.get(sessionId);
+        if (!sessionOpt.isPresent() || !sessionOpt.get().studentId.equals(studentId)) {
+            res.put("error", "Session not found or expired");
+            return res;
+        }
+        Session session = sessionOpt.get();
+        synchronized (session) {
+            if (session.finished) {
+                res.put("error", "Session already finished");
+                return res;
+            }
+            if (session.current == null || !session.current.question.getId().equals(questionId)) {
+                res.put("error", "Answer does not match the current question");
+                return res;
+            }
+
+            Item item = session.current;
+            boolean isCorrect = answer != null && answer.equalsIgnoreCase(item.question.getCorrectAnswer());
+            session.seen.add(item.question.getId());
+            session.answers.add(item.question.getId(), isCorrect,
+                                AnswerRecord.choiceOf(answer, item.question.getOptions()));
+            if (isCorrect) {
+                session.correct++;
+            }
+
+            // Rasch probability of a correct answer, then a bounded Newton step on the ability
+            double p = 1.0 / (1.0 + Math.exp(-(session.ability - item.difficulty)));
+            session.information += p * (1 - p);
+            double step = ((isCorrect ? 1 : 0) - p) / Math.max(session.information, 0.25);
+            step = Math.max(-MAX_STEP, Math.min(MAX_STEP, step));
+            session.ability = Math.max(-MAX_ABILITY, Math.min(MAX_ABILITY, session.ability + step));
+
+            int asked = session.answers.size();
+            boolean confident = asked >= minQuestions && session.standardError() <= targetStandardError;
+            session.current = confident || asked >= maxQuestions
+                ? null
+                : session.bank.closest(session.ability, session.seen);
+
+            if (session.current == null) {
+                session.finished = true;
+                sessions.remove(sessionId);
+                return finish(session);
+            }
+            return progress(session);
+        }
+    }
+
+    /**
+     * Current state of a session
+     */
+    public Map<String, Object> status(String sessionId, Long studentId) {
+        Optional<Session> sessionOpt = sessions.get(sessionId);
+        if (!sessionOpt.isPresent() || !sessionOpt.get().studentId.equals(studentId)) {
+            Map<String, Object> res = new HashMap<>();
+            res.put("error", "Session not found or expired");
+            return res;
+        }
+        Session session = sessionOpt.get();
+        synchronized (session) {
+            return progress(session);
+        }
+    }
+
+    public int getActiveSessions() {
+        return sessions.size();
+    }
+
+    private Map<String, Object> progress(Session session) {
+        Map<String, Object> res = new HashMap<>();
+        res.put("finished", false);
+        res.put("answered", session.answers.size());
+        res.put("ability", session.ability);
+        res.put("standardError", session.information > 0 ? session.standardError() : null);
+        if (session.current != null) {
+            Map<String, Object> questionData = new HashMap<>();
+            questionData.put("id", session.current.question.getId());
+            questionData.put("questionText", session.current.question.getQuestionText());
+            questionData.put("options", session.current.question.getOptions());
+            res.put("question", questionData);
+        }
+        return res;
+    }
+
+    private Map<String, Object> finish(Session session) {
+        int total = session.answers.size();
+        String level = levelForAbility(session.ability);
+
+        Map<String, Object> res = new HashMap<>();
+        Optional<Student> student = studentRepository.findById(session.studentId);
+        if (student.isPresent()) {
+            ResultEntity saved = resultService.record(student.get(), session.correct, total, level,
+                                                      session.bank.recruiterId, session.jobId, session.answers);
+            res.put("resultId", saved.getId());
+        }
+        res.put("finished", true);
+        res.put("score", session.correct);
+        res.put("totalQuestions", total);
+        res.put("level", level);
+        res.put("ability", session.ability);
+        res.put("standardError", session.standardError());
+        res.put("message", "Adaptive test completed! Score saved to profile.");
+        return res;
+    }
+
+    // Adaptive tests give everyone ~50% correct, so the level comes from the ability estimate
+    static String levelForAbility(double ability) {
+        if (ability < -0.5) {
+            return "Beginner";
+        } else if (ability < 1.0) {
+            return "Intermediate";
+        }
+        return "Advanced";
+    }
+
+    // Same bank resolution as TestController.getQuestions: job-specific, else general questions.
+    // Rebuilt when QuestionBankService hands out a new snapshot (after invalidate() or its own TTL),
+    // and every BANK_TTL_MS so difficulties follow the latest stats.
+    private ItemBank getBank(Long jobId) {
+        long key = jobId != null ? jobId : 0L;
+        QuestionBankService.QuestionBank source = questionBankService.getBank(jobId);
+        ItemBank bank = banks.get(key);
+        if (bank == null || bank.source != source || System.currentTimeMillis() - bank.builtAt > BANK_TTL_MS) {
+            bank = buildBank(source);
+            banks.put(key, bank);
+        }
+        return bank;
+    }
+
+    private ItemBank buildBank(QuestionBankService.QuestionBank bank) {
+        List<Long> ids = new ArrayList<>(bank.size());
+        for (int i = 0; i < bank.size(); i++) {
+            ids.add(bank.id(i));
+        }
+        Map<Long, QuestionStat> stats = questionStatRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(QuestionStat::getQuestionId, s -> s));
+
+        NavigableSet<Item> items = new TreeSet<>();
+        for (int i = 0; i < bank.size(); i++) {
+            // Smoothed proportion correct -> logit difficulty; uncalibrated questions sit at 0
+            QuestionStat stat = stats.get(bank.id(i));
+            double p = stat != null ? (stat.getCorrectCount() + 1.0) / (stat.getAttempts() + 2.0) : 0.5;
+            items.add(new Item(bank.question(i), Math.log((1 - p) / p)));
+        }
+        return new ItemBank(items, bank.getRecruiterId(), bank);
+    }
+
+    @Scheduled(fixedRate = 60 * 1000)
+    public void purgeExpiredSessions() {
+        sessions.purgeExpired();
+    }
+}
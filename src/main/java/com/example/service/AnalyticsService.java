@@ -0,0 +1,259 @@
+package com.example.service;
+
+import com.example.model.AnswerRecord;
+import com.example.model.ResultEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recruiter analytics served from pre-aggregated rollup tables.
+ *
+ * Every submission bumps one result_rollups row (recruiter, job, day, score
+ * decile) and one question_stats row per question, so reads only touch
+ * days x deciles x jobs rows no matter how many results exist.
+ *
+ * Rebuilds regenerate the rollups, question stats and student summaries
+ * in one transaction holding the analytics_locks row exclusively, while
+ * every submission holds it shared, so no upsert can land between the
+ * DELETE and the re-insert and be lost. Submissions wait for a running
+ * rebuild instead (bounded by innodb_lock_wait_timeout).
+ */
+@Service
+public class AnalyticsService {
+
+    private static final String UPSERT_ROLLUP =
+            "INSERT INTO result_rollups (recruiter_id, job_id, rollup_day, score_bucket, tests, passed, score_pct_sum) " +
+            "VALUES (?, ?, ?, ?, 1, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE tests = tests + 1, passed = passed + VALUES(passed), " +
+            "score_pct_sum = score_pct_sum + VALUES(score_pct_sum)";
+
+    private static final String UPSERT_QUESTION_STAT =
+            "INSERT INTO question_stats (question_id, attempts, correct_count) VALUES (?, 1, ?) " +
+            "ON DUPLICATE KEY UPDATE attempts = attempts + 1, correct_count = correct_count + VALUES(correct_count)";
+
+    private static final long LOCK_ROW = 1L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ItemAnalysisService itemAnalysisService;
+    private final AssessmentHistoryService assessmentHistoryService;
+    private final int passPercent;
+    private volatile boolean lockRowCreated;
+
+    public AnalyticsService(JdbcTemplate jdbcTemplate, ItemAnalysisService itemAnalysisService,
+                            AssessmentHistoryService assessmentHistoryService,
+                            @Value("${skillfit.analytics.pass-percent:50}") int passPercent) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.itemAnalysisService = itemAnalysisService;
+        this.assessmentHistoryService = assessmentHistoryService;
+        this.passPercent = passPercent;
+    }
+
+    /**
+     * Hold off rebuilds until the caller's transaction ends. Call before the
+     * submission writes anything, so a waiting submission holds no row a
+     * rebuild needs.
+     */
+    public void lockForSubmission() {
+        lock("SELECT id FROM analytics_locks WHERE id = ? LOCK IN SHARE MODE");
+    }
+
+    /**
+     * Add a freshly saved result to the rollups (joins the caller's transaction)
+     * @param result Saved result
+     * @param answers Per-question answers of the result
+     */
+    public void recordResult(ResultEntity result, AnswerRecord answers) {
+        int pct = scorePercent(result.getScore(), result.getTotalQuestions());
+        jdbcTemplate.update(UPSERT_ROLLUP,
+                result.getRecruiterId() != null ? result.getRecruiterId() : 0L,
+                result.getJobId() != null ? result.getJobId() : 0L,
+                Date.valueOf(result.getTakenAt().toLocalDate()),
+                Math.min(pct / 10, 10),
+                pct >= passPercent ? 1 : 0,
+                pct);
+
+        if (answers.size() > 0) {
+            List<Object[]> rows = new ArrayList<>(answers.size());
+            for (int i = 0; i < answers.size(); i++) {
+                rows.add(new Object[] { answers.questionId(i), answers.isCorrect(i) ? 1 : 0 });
+            }
+            jdbcTemplate.batchUpdate(UPSERT_QUESTION_STAT, rows);
+        }
+    }
+
+    /**
+     * Analytics for one recruiter over a date range
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getRecruiterAnalytics(Long recruiterId, LocalDate from, LocalDate to) {
+        Date fromDate = Date.valueOf(from);
+        Date toDate = Date.valueOf(to);
+        Map<String, Object> res = new HashMap<>();
+        res.put("recruiterId", recruiterId);
+        res.put("from", from);
+        res.put("to", to);
+        res.put("passPercent", passPercent);
+
+        // Score distribution by decile (bucket 10 = 100%)
+        long[] distribution = new long[11];
+        long[] totals = new long[3]; // tests, passed, scorePctSum
+        jdbcTemplate.query(
+            "SELECT score_bucket, SUM(tests), SUM(passed), SUM(score_pct_sum) FROM result_rollups " +
+            "WHERE recruiter_id = ? AND rollup_day BETWEEN ? AND ? GROUP BY score_bucket",
+            rs -> {
+                distribution[rs.getInt(1)] = rs.getLong(2);
+                totals[0] += rs.getLong(2);
+                totals[1] += rs.getLong(3);
+                totals[2] += rs.getLong(4);
+            },
+            recruiterId, fromDate, toDate);
+
+        List<Map<String, Object>> scoreDistribution = new ArrayList<>();
+        for (int bucket = 0; bucket <= 10; bucket++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("fromPercent", bucket * 10);
+            row.put("toPercent", Math.min(bucket * 10 + 9, 100));
+            row.put("tests", distribution[bucket]);
+            scoreDistribution.add(row);
+        }
+        res.put("scoreDistribution", scoreDistribution);
+        res.put("totalTests", totals[0]);
+        res.put("passRate", totals[0] > 0 ? (double) totals[1] / totals[0] : 0.0);
+        res.put("averageScorePercent", totals[0] > 0 ? (double) totals[2] / totals[0] : 0.0);
+
+        // Tests per day
+        res.put("testsPerDay", jdbcTemplate.query(
+            "SELECT rollup_day, SUM(tests), SUM(passed) FROM result_rollups " +
+            "WHERE recruiter_id = ? AND rollup_day BETWEEN ? AND ? GROUP BY rollup_day ORDER BY rollup_day",
+            (rs, i) -> {
+                Map<String, Object> row = new HashMap<>();
+                row.put("day", rs.getDate(1).toLocalDate());
+                row.put("tests", rs.getLong(2));
+                row.put("passed", rs.getLong(3));
+                return row;
+            },
+            recruiterId, fromDate, toDate));
+
+        // Pass rate per job level (general tests count as "General")
+        res.put("passRateByLevel", jdbcTemplate.query(
+            "SELECT COALESCE(j.level, 'General') AS lvl, SUM(r.tests), SUM(r.passed) FROM result_rollups r " +
+            "LEFT JOIN jobs j ON j.id = r.job_id " +
+            "WHERE r.recruiter_id = ? AND r.rollup_day BETWEEN ? AND ? GROUP BY COALESCE(j.level, 'General')",
+            (rs, i) -> {
+                Map<String, Object> row = new HashMap<>();
+                row.put("level", rs.getString(1));
+                row.put("tests", rs.getLong(2));
+                row.put("passRate", rs.getLong(2) > 0 ? (double) rs.getLong(3) / rs.getLong(2) : 0.0);
+                return row;
+            },
+            recruiterId, fromDate, toDate));
+
+        // Per job
+        res.put("jobs", jdbcTemplate.query(
+            "SELECT r.job_id, j.role, SUM(r.tests), SUM(r.passed), SUM(r.score_pct_sum) FROM result_rollups r " +
+            "LEFT JOIN jobs j ON j.id = r.job_id " +
+            "WHERE r.recruiter_id = ? AND r.rollup_day BETWEEN ? AND ? GROUP BY r.job_id, j.role",
+            (rs, i) -> {
+                long tests = rs.getLong(3);
+                Map<String, Object> row = new HashMap<>();
+                row.put("jobId", rs.getLong(1) != 0 ? rs.getLong(1) : null);
+                row.put("role", rs.getString(2) != null ? rs.getString(2) : "General");
+                row.put("tests", tests);
+                row.put("passRate", tests > 0 ? (double) rs.getLong(4) / tests : 0.0);
+                row.put("averageScorePercent", tests > 0 ? (double) rs.getLong(5) / tests : 0.0);
+                return row;
+            },
+            recruiterId, fromDate, toDate));
+
+        // Per-question difficulty for this recruiter's question bank (all time)
+        res.put("questionDifficulty", jdbcTemplate.query(
+            "SELECT q.id, q.question_text, s.attempts, s.correct_count FROM question_stats s " +
+            "JOIN questions q ON q.id = s.question_id WHERE q.recruiter_id = ? ORDER BY q.id",
+            (rs, i) -> {
+                long attempts = rs.getLong(3);
+                Map<String, Object> row = new HashMap<>();
+                row.put("questionId", rs.getLong(1));
+                row.put("questionText", rs.getString(2));
+                row.put("attempts", attempts);
+                row.put("correct", rs.getLong(4));
+                row.put("correctRate", attempts > 0 ? (double) rs.getLong(4) / attempts : 0.0);
+                return row;
+            },
+            recruiterId));
+
+        return res;
+    }
+
+    /**
+     * Regenerate result_rollups, question_stats and student_result_summaries
+     * from the full results history, with submissions locked out meanwhile
+     * @return Rows written per table
+     */
+    @Transactional
+    public Map<String, Object> rebuildAll() {
+        lock("SELECT id FROM analytics_locks WHERE id = ? FOR UPDATE");
+        Map<String, Object> res = new HashMap<>();
+        res.put("rollupRows", rebuildRollups());
+        res.put("questionStats", rebuildQuestionStats());
+        res.put("studentSummaries", assessmentHistoryService.rebuildSummaries());
+        return res;
+    }
+
+    private void lock(String sql) {
+        if (!lockRowCreated) {
+            // Without the row both lock modes would only take compatible gap locks
+            jdbcTemplate.update("INSERT IGNORE INTO analytics_locks (id) VALUES (?)", LOCK_ROW);
+            lockRowCreated = true;
+        }
+        jdbcTemplate.queryForList(sql, Long.class, LOCK_ROW);
+    }
+
+    /**
+     * Regenerate result_rollups from the full results history
+     * @return Number of rollup rows written
+     */
+    private int rebuildRollups() {
+        jdbcTemplate.update("DELETE FROM result_rollups");
+        String pct = "CASE WHEN total_questions > 0 THEN FLOOR(score * 100 / total_questions) ELSE 0 END";
+        return jdbcTemplate.update(
+            "INSERT INTO result_rollups (recruiter_id, job_id, rollup_day, score_bucket, tests, passed, score_pct_sum) " +
+            "SELECT COALESCE(recruiter_id, 0), COALESCE(job_id, 0), CAST(taken_at AS DATE), " +
+            "LEAST(FLOOR((" + pct + ") / 10), 10), COUNT(*), " +
+            "SUM(CASE WHEN (" + pct + ") >= ? THEN 1 ELSE 0 END), SUM(" + pct + ") " +
+            "FROM results WHERE taken_at IS NOT NULL " +
+            "GROUP BY COALESCE(recruiter_id, 0), COALESCE(job_id, 0), CAST(taken_at AS DATE), " +
+            "LEAST(FLOOR((" + pct + ") / 10), 10)",
+            passPercent);
+    }
+
+    /**
+     * Regenerate question_stats from the per-question answer records.
+     * Results saved before answer records existed are not counted.
+     * @return Number of questions written
+     */
+    private int rebuildQuestionStats() {
+        Map<Long, long[]> counts = itemAnalysisService.countAllAnswers();
+        jdbcTemplate.update("DELETE FROM question_stats");
+        List<Object[]> rows = new ArrayList<>(counts.size());
+        counts.forEach((questionId, c) -> rows.add(new Object[] { questionId, c[0], c[1] }));
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO question_stats (question_id, attempts, correct_count) VALUES (?, ?, ?)", rows);
+        return rows.size();
+    }
+
+    static int scorePercent(int score, Integer totalQuestions) {
+        if (totalQuestions == null || totalQuestions <= 0) {
+            return 0;
+        }
+        return score * 100 / totalQuestions;
+    }
+}
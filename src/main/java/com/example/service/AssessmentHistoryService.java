@@ -0,0 +1,365 @@
+package com.example.service;
+
+import com.example.exception.ApiException;
+import com.example.model.ResultEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A student's assessment history, a page at a time, plus summary
+ * statistics that do not grow with the history.
+ *
+ * Pages are keyset-paginated on (taken_at, id), newest first, so page N
+ * costs the same as page 1. The unbounded summary (count, best, mean,
+ * latest, moving average; overall and per recruiter) is read from
+ * student_result_summaries, upserted on every submission. Summaries for
+ * a date range come from one grouped aggregate query over the range.
+ */
+@Service
+public class AssessmentHistoryService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private static final String UPSERT_SUMMARY =
+            "INSERT INTO student_result_summaries (student_id, recruiter_id, tests, best_score_pct, score_pct_sum, " +
+            "ema_score_pct, latest_score, latest_total_questions, latest_level, latest_taken_at) " +
+            "VALUES (?, ?, 1, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE tests = tests + 1, best_score_pct = GREATEST(best_score_pct, VALUES(best_score_pct)), " +
+            "score_pct_sum = score_pct_sum + VALUES(score_pct_sum), " +
+            "ema_score_pct = ema_score_pct + ? * (VALUES(ema_score_pct) - ema_score_pct), " +
+            "latest_score = VALUES(latest_score), latest_total_questions = VALUES(latest_total_questions), " +
+            "latest_level = VALUES(latest_level), latest_taken_at = VALUES(latest_taken_at)";
+
+    private static final String INSERT_SUMMARY =
+            "INSERT INTO student_result_summaries (student_id, recruiter_id, tests, best_score_pct, score_pct_sum, " +
+            "ema_score_pct, latest_score, latest_total_questions, latest_level, latest_taken_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String PCT = "CASE WHEN total_questions > 0 THEN FLOOR(score * 100 / total_questions) ELSE 0 END";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbc;
+    private final double emaAlpha;
+
+    public AssessmentHistoryService(JdbcTemplate jdbcTemplate, DataSource dataSource,
+                                    @Value("${skillfit.history.ema-alpha:0.3}") double emaAlpha) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbc = new JdbcTemplate(dataSource);
+        this.streamingJdbc.setFetchSize(1000);
+        this.emaAlpha = emaAlpha;
+    }
+
+    /**
+     * Add a freshly saved result to the student's summaries (joins the caller's transaction)
+     */
+    public void recordResult(ResultEntity result) {
+        int pct = AnalyticsService.scorePercent(result.getScore(), result.getTotalQuestions());
+        long studentId = result.getStudent().getId();
+        int total = result.getTotalQuestions() != null ? result.getTotalQuestions() : 0;
+        Timestamp takenAt = Timestamp.valueOf(result.getTakenAt());
+        jdbcTemplate.update(UPSERT_SUMMARY, studentId, 0L, pct, pct, (double) pct,
+                result.getScore(), total, result.getLevel(), takenAt, emaAlpha);
+        if (result.getRecruiterId() != null) {
+            jdbcTemplate.update(UPSERT_SUMMARY, studentId, result.getRecruiterId(), pct, pct, (double) pct,
+                    result.getScore(), total, result.getLevel(), takenAt, emaAlpha);
+        }
+    }
+
+    /**
+     * One page of results, newest first
+     * @param recruiterId Only this recruiter's tests (nullable)
+     * @param from First day included (nullable)
+     * @param to Last day included (nullable)
+     * @param cursor nextCursor of the previous page, null for the first page
+     * @param limit Page size (capped at 100)
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> history(Long studentId, Long recruiterId, LocalDate from, LocalDate to,
+                                       String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        StringBuilder sql = new StringBuilder(
+            "SELECT id, score, level, total_questions, taken_at, recruiter_id, job_id FROM results " +
+            "WHERE student_id = ? AND taken_at IS NOT NULL");
+        List<Object> args = new ArrayList<>();
+        args.add(studentId);
+        appendFilters(sql, args, recruiterId, from, to);
+        if (cursor != null && !cursor.isBlank()) {
+            Object[] position = decodeCursor(cursor);
+            sql.append(" AND (taken_at < ? OR (taken_at = ? AND id < ?))");
+            args.add(position[0]);
+            args.add(position[0]);
+            args.add(position[1]);
+        }
+        sql.append(" ORDER BY taken_at DESC, id DESC LIMIT ?");
+        args.add(pageSize + 1); // one extra row tells whether there is a next page
+
+        List<Map<String, Object>> rows = jdbcTemplate.query(sql.toString(), (rs, i) -> {
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", rs.getLong(1));
+            row.put("score", rs.getInt(2));
+            row.put("level", rs.getString(3));
+            int total = rs.getInt(4);
+            row.put("totalQuestions", rs.wasNull() ? 10 : total);
+            row.put("takenAt", rs.getTimestamp(5).toLocalDateTime());
+            long recruiter = rs.getLong(6);
+            row.put("recruiterId", rs.wasNull() ? null : recruiter);
+            long job = rs.getLong(7);
+            row.put("jobId", rs.wasNull() ? null : job);
+            return row;
+        }, args.toArray());
+
+        Map<String, Object> res = new HashMap<>();
+        boolean hasMore = rows.size() > pageSize;
+        List<Map<String, Object>> page = hasMore ? rows.subList(0, pageSize) : rows;
+        res.put("assessments", page);
+        res.put("limit", pageSize);
+        if (hasMore) {
+            Map<String, Object> last = page.get(page.size() - 1);
+            res.put("nextCursor", encodeCursor((LocalDateTime) last.get("takenAt"), (Long) last.get("id")));
+        } else {
+            res.put("nextCursor", null);
+        }
+        return res;
+    }
+
+    /**
+     * Count, best, mean and latest score, overall and per recruiter. Without
+     * a date range this is read from the summary rows and includes the
+     * moving average; with one it is aggregated over the range.
+     * @param recruiterId Only this recruiter's tests (nullable)
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> summary(Long studentId, Long recruiterId, LocalDate from, LocalDate to) {
+        Map<String, Object> res = new HashMap<>();
+        res.put("studentId", studentId);
+        res.put("from", from);
+        res.put("to", to);
+        if (from == null && to == null) {
+            summaryFromRows(res, studentId, recruiterId);
+        } else {
+            summaryForRange(res, studentId, recruiterId, from, to);
+        }
+        return res;
+    }
+
+    private void summaryFromRows(Map<String, Object> res, Long studentId, Long recruiterId) {
+        StringBuilder sql = new StringBuilder(
+            "SELECT recruiter_id, tests, best_score_pct, score_pct_sum, ema_score_pct, latest_score, " +
+            "latest_total_questions, latest_level, latest_taken_at FROM student_result_summaries WHERE student_id = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(studentId);
+        if (recruiterId != null) {
+            sql.append(" AND recruiter_id = ?");
+            args.add(recruiterId);
+        }
+        sql.append(" ORDER BY recruiter_id");
+
+        Map<String, Object> overall = null;
+        List<Map<String, Object>> byRecruiter = new ArrayList<>();
+        for (Map<String, Object> row : jdbcTemplate.query(sql.toString(), (rs, i) -> {
+            long tests = rs.getLong(2);
+            Map<String, Object> stats = stats(tests, rs.getInt(3), rs.getLong(4));
+            stats.put("movingAverageScorePercent", rs.getDouble(5));
+            stats.put("latest", latest(rs.getInt(6), rs.getInt(7), rs.getString(8), rs.getTimestamp(9)));
+            stats.put("recruiterId", rs.getLong(1));
+            return stats;
+        }, args.toArray())) {
+            long rowRecruiter = (Long) row.remove("recruiterId");
+            if (recruiterId != null || rowRecruiter == 0L) {
+                overall = row;
+            } else {
+                row.put("recruiterId", rowRecruiter);
+                byRecruiter.add(row);
+            }
+        }
+        res.put("overall", overall != null ? overall : stats(0, 0, 0));
+        res.put("byRecruiter", byRecruiter);
+    }
+
+    private void summaryForRange(Map<String, Object> res, Long studentId, Long recruiterId,
+                                 LocalDate from, LocalDate to) {
+        StringBuilder sql = new StringBuilder(
+            "SELECT recruiter_id, COUNT(*), MAX(" + PCT + "), SUM(" + PCT + ") FROM results " +
+            "WHERE student_id = ? AND taken_at IS NOT NULL");
+        List<Object> args = new ArrayList<>();
+        args.add(studentId);
+        appendFilters(sql, args, recruiterId, from, to);
+        sql.append(" GROUP BY recruiter_id ORDER BY recruiter_id");
+
+        long[] totals = new long[3]; // tests, best, pctSum
+        List<Map<String, Object>> byRecruiter = new ArrayList<>();
+        jdbcTemplate.query(sql.toString(), rs -> {
+            long tests = rs.getLong(2);
+            int best = rs.getInt(3);
+            long pctSum = rs.getLong(4);
+            totals[0] += tests;
+            totals[1] = Math.max(totals[1], best);
+            totals[2] += pctSum;
+            long recruiter = rs.getLong(1);
+            if (!rs.wasNull()) {
+                Map<String, Object> stats = stats(tests, best, pctSum);
+                stats.put("recruiterId", recruiter);
+                byRecruiter.add(stats);
+            }
+        }, args.toArray());
+
+        Map<String, Object> overall = stats(totals[0], (int) totals[1], totals[2]);
+        // Latest in the range is the first history row; one index probe
+        List<?> first = (List<?>) history(studentId, recruiterId, from, to, null, 1).get("assessments");
+        overall.put("latest", first.isEmpty() ? null : first.get(0));
+        res.put("overall", overall);
+        res.put("byRecruiter", recruiterId != null ? List.of() : byRecruiter);
+    }
+
+    /**
+     * Regenerate student_result_summaries from the full results history.
+     * Rows arrive grouped by student, so only the current student's
+     * summaries and one insert batch are held at a time. Runs inside
+     * AnalyticsService.rebuildAll, which locks out submissions.
+     * @return Number of summary rows written
+     */
+    int rebuildSummaries() {
+        jdbcTemplate.update("DELETE FROM student_result_summaries");
+        Map<Long, SummaryAccumulator> current = new LinkedHashMap<>();
+        List<Object[]> batch = new ArrayList<>(REBUILD_BATCH_SIZE);
+        long[] written = { 0 };
+        long[] currentStudent = { -1 };
+        streamingJdbc.query(
+            "SELECT student_id, recruiter_id, score, total_questions, level, taken_at FROM results " +
+            "WHERE student_id IS NOT NULL AND taken_at IS NOT NULL ORDER BY student_id, taken_at, id",
+            rs -> {
+                long studentId = rs.getLong(1);
+                long recruiterId = rs.getLong(2);
+                boolean hasRecruiter = !rs.wasNull();
+                int score = rs.getInt(3);
+                int total = rs.getInt(4);
+                Integer totalQuestions = rs.wasNull() ? null : total;
+                String level = rs.getString(5);
+                Timestamp takenAt = rs.getTimestamp(6);
+                int pct = AnalyticsService.scorePercent(score, totalQuestions);
+                if (studentId != currentStudent[0]) {
+                    written[0] += flushSummaries(current, batch, false);
+                    currentStudent[0] = studentId;
+                }
+                for (long key : hasRecruiter ? new long[] { 0L, recruiterId } : new long[] { 0L }) {
+                    current.computeIfAbsent(key, k -> new SummaryAccumulator(studentId, k))
+                        .add(pct, score, totalQuestions != null ? totalQuestions : 0, level, takenAt, emaAlpha);
+                }
+            });
+        written[0] += flushSummaries(current, batch, true);
+        return (int) written[0];
+    }
+
+    // Move one student's summaries into the batch; insert it when full or at the end
+    private int flushSummaries(Map<Long, SummaryAccumulator> current, List<Object[]> batch, boolean last) {
+        int moved = current.size();
+        for (SummaryAccumulator acc : current.values()) {
+            batch.add(acc.toRow());
+        }
+        current.clear();
+        if (!batch.isEmpty() && (last || batch.size() >= REBUILD_BATCH_SIZE)) {
+            jdbcTemplate.batchUpdate(INSERT_SUMMARY, batch);
+            batch.clear();
+        }
+        return moved;
+    }
+
+    private static void appendFilters(StringBuilder sql, List<Object> args, Long recruiterId,
+                                      LocalDate from, LocalDate to) {
+        if (recruiterId != null) {
+            sql.append(" AND recruiter_id = ?");
+            args.add(recruiterId);
+        }
+        if (from != null) {
+            sql.append(" AND taken_at >= ?");
+            args.add(Timestamp.valueOf(from.atStartOfDay()));
+        }
+        if (to != null) {
+            sql.append(" AND taken_at < ?");
+            args.add(Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+        }
+    }
+
+    private static Map<String, Object> stats(long tests, int bestPct, long pctSum) {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("tests", tests);
+        stats.put("bestScorePercent", tests > 0 ? bestPct : null);
+        stats.put("averageScorePercent", tests > 0 ? (double) pctSum / tests : null);
+        return stats;
+    }
+
+    private static Map<String, Object> latest(int score, int totalQuestions, String level, Timestamp takenAt) {
+        Map<String, Object> latest = new HashMap<>();
+        latest.put("score", score);
+        latest.put("totalQuestions", totalQuestions > 0 ? totalQuestions : 10);
+        latest.put("level", level);
+        latest.put("takenAt", takenAt != null ? takenAt.toLocalDateTime() : null);
+        return latest;
+    }
+
+    // Opaque to clients: base64url of "<takenAt>|<id>"
+    static String encodeCursor(LocalDateTime takenAt, long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((takenAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Object[] decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            return new Object[] { Timestamp.valueOf(LocalDateTime.parse(parts[0])), Long.parseLong(parts[1]) };
+        } catch (RuntimeException e) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "INVALID_CURSOR", "cursor is not a valid page cursor");
+        }
+    }
+
+    private static class SummaryAccumulator {
+        final long studentId;
+        final long recruiterId;
+        long tests;
+        int bestPct;
+        long pctSum;
+        double ema;
+        int latestScore;
+        int latestTotal;
+        String latestLevel;
+        Timestamp latestTakenAt;
+
+        SummaryAccumulator(long studentId, long recruiterId) {
+            this.studentId = studentId;
+            this.recruiterId = recruiterId;
+        }
+
+        // Results arrive oldest first, so the EMA matches the incremental upserts
+        void add(int pct, int score, int totalQuestions, String level, Timestamp takenAt, double alpha) {
+            ema = tests == 0 ? pct : ema + alpha * (pct - ema);
+            tests++;
+            bestPct = Math.max(bestPct, pct);
+            pctSum += pct;
+            latestScore = score;
+            latestTotal = totalQuestions;
+            latestLevel = level;
+            latestTakenAt = takenAt;
+        }
+
+        Object[] toRow() {
+            return new Object[] { studentId, recruiterId, tests, bestPct, pctSum, ema,
+                latestScore, latestTotal, latestLevel, latestTakenAt };
+        }
+    }
+}
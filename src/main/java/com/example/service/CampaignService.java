@@ -0,0 +1,224 @@
+package com.example.service;
+
+import com.example.logging.ThrottledErrorLogger;
+import com.example.model.Recruiter;
+import com.example.model.Student;
+import com.example.repository.RecruiterRepository;
+import com.example.repository.StudentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recruiter bulk messaging. A campaign resolves all recipients with one
+ * query, then inserts the messages in JDBC batches on a background thread
+ * while callers poll its progress.
+ */
+@Service
+public class CampaignService {
+    private static final Logger log = LoggerFactory.getLogger(CampaignService.class);
+    private static final ThrottledErrorLogger errorLog = new ThrottledErrorLogger(log);
+
+    private static final int BATCH_SIZE = 500;
+    private static final long FINISHED_RETENTION_MS = 60 * 60 * 1000; // 1 hour
+    private static final String INSERT_MESSAGE =
+            "INSERT INTO messages (recruiter_id, student_id, subject, message, sent_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final StudentRepository studentRepo;
+    private final RecruiterRepository recruiterRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EmailService emailService;
+    private final NotificationService notificationService;
+
+    private final Map<String, CampaignStatus> campaigns = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(100),
+            r -> {
+                Thread t = new Thread(r, "campaign-worker");
+                t.setDaemon(true);
+                return t;
+            });
+
+    public CampaignService(StudentRepository studentRepo, RecruiterRepository recruiterRepo,
+                           JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                           EmailService emailService, NotificationService notificationService) {
+        this.studentRepo = studentRepo;
+        this.recruiterRepo = recruiterRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.emailService = emailService;
+        this.notificationService = notificationService;
+    }
+
+    /**
+     * Candidate filter; null fields are ignored
+     */
+    public static class CandidateFilter {
+        public String level;
+        public Integer minScore;
+        public Integer maxScore;
+        public boolean onlyMyCandidates; // only students with results on this recruiter's tests
+    }
+
+    /**
+     * Progress of one campaign
+     */
+    public static class CampaignStatus {
+        final String id;
+        final Long recruiterId;
+        final int totalRecipients;
+        final AtomicInteger sent = new AtomicInteger();
+        final AtomicInteger emailsQueued = new AtomicInteger();
+        final LocalDateTime createdAt = LocalDateTime.now();
+        volatile String state = "QUEUED";
+        volatile String error;
+        volatile long finishedAt;
+
+        CampaignStatus(String id, Long recruiterId, int totalRecipients) {
+            this.id = id;
+            this.recruiterId = recruiterId;
+            this.totalRecipients = totalRecipients;
+        }
+
+        public Long getRecruiterId() { return recruiterId; }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> data = new HashMap<>();
+            data.put("campaignId", id);
+            data.put("recruiterId", recruiterId);
+            data.put("state", state);
+            data.put("totalRecipients", totalRecipients);
+            data.put("sent", sent.get());
+            data.put("emailsQueued", emailsQueued.get());
+            data.put("createdAt", createdAt);
+            if (error != null) {
+                data.put("error", error);
+            }
+            return data;
+        }
+    }
+
+    /**
+     * Resolve recipients and start sending in the background
+     * @param recruiterId Sending recruiter
+     * @param subject Message subject
+     * @param template Message body; {{name}}, {{level}}, {{score}}, {{college}} and {{degree}} are replaced per candidate
+     * @param filter Which candidates to contact
+     * @param notifyByEmail Also queue a notification email per recipient
+     * @return Campaign status, or empty if the recruiter does not exist
+     * @throws RejectedExecutionException if too many campaigns are already queued
+     */
+    public Optional<CampaignStatus> start(Long recruiterId, String subject, String template,
+                                          CandidateFilter filter, boolean notifyByEmail) {
+        Optional<Recruiter> recruiterOpt = recruiterRepo.findById(recruiterId);
+        if (!recruiterOpt.isPresent()) {
+            return Optional.empty();
+        }
+        Recruiter recruiter = recruiterOpt.get();
+
+        List<Student> recipients = studentRepo.findCampaignRecipients(
+                filter.level, filter.minScore, filter.maxScore,
+                filter.onlyMyCandidates ? recruiterId : null);
+
+        CampaignStatus status = new CampaignStatus(UUID.randomUUID().toString(), recruiterId, recipients.size());
+        campaigns.put(status.id, status);
+        try {
+            executor.execute(() -> run(status, recruiter, recipients, subject, template, notifyByEmail));
+        } catch (RejectedExecutionException e) {
+            campaigns.remove(status.id);
+            throw e;
+        }
+        return Optional.of(status);
+    }
+
+    public Optional<CampaignStatus> getStatus(String campaignId) {
+        return Optional.ofNullable(campaigns.get(campaignId));
+    }
+
+    private void run(CampaignStatus status, Recruiter recruiter, List<Student> recipients,
+                     String subject, String template, boolean notifyByEmail) {
+        status.state = "RUNNING";
+        boolean personalised = template.contains("{{");
+        try {
+            for (int from = 0; from < recipients.size(); from += BATCH_SIZE) {
+                List<Student> chunk = recipients.subList(from, Math.min(from + BATCH_SIZE, recipients.size()));
+                Timestamp sentAt = Timestamp.valueOf(LocalDateTime.now());
+
+                // One transaction and one batched statement per chunk
+                transactionTemplate.executeWithoutResult(tx ->
+                    jdbcTemplate.batchUpdate(INSERT_MESSAGE, chunk, chunk.size(), (ps, student) -> {
+                        ps.setLong(1, recruiter.getId());
+                        ps.setLong(2, student.getId());
+                        ps.setString(3, subject);
+                        ps.setString(4, personalised ? render(template, student) : template);
+                        ps.setTimestamp(5, sentAt);
+                    }));
+                status.sent.addAndGet(chunk.size());
+
+                for (Student student : chunk) {
+                    Map<String, Object> event = new HashMap<>();
+                    event.put("subject", subject);
+                    event.put("sentAt", sentAt.toLocalDateTime());
+                    event.put("senderType", "recruiter");
+                    event.put("senderId", recruiter.getId());
+                    event.put("senderName", recruiter.getName());
+                    notificationService.publish(NotificationService.STUDENT, student.getId(), "message", event);
+
+                    if (notifyByEmail && student.getEmail() != null
+                            && emailService.enqueueMessageNotification(student.getEmail(), student.getName(),
+                                                                         recruiter.getName(), subject)) {
+                        status.emailsQueued.incrementAndGet();
+                    }
+                }
+            }
+            status.state = "COMPLETED";
+        } catch (Exception e) {
+            status.state = "FAILED";
+            status.error = e.getMessage();
+            errorLog.error("Campaign {} failed", e, status.id);
+        } finally {
+            status.finishedAt = System.currentTimeMillis();
+        }
+    }
+
+    private static String render(String template, Student student) {
+        return template
+                .replace("{{name}}", student.getName() != null ? student.getName() : "")
+                .replace("{{level}}", student.getLevel() != null ? student.getLevel() : "")
+                .replace("{{score}}", String.valueOf(student.getScore()))
+                .replace("{{college}}", student.getCollege() != null ? student.getCollege() : "")
+                .replace("{{degree}}", student.getDegree() != null ? student.getDegree() : "");
+    }
+
+    // Forget finished campaigns after an hour
+    @Scheduled(fixedRate = 10 * 60 * 1000)
+    public void purgeFinished() {
+        long cutoff = System.currentTimeMillis() - FINISHED_RETENTION_MS;
+        campaigns.values().removeIf(c -> c.finishedAt != 0 && c.finishedAt < cutoff);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
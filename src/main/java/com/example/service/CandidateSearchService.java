@@ -0,0 +1,395 @@
+package com.example.service;
+
+import com.example.exception.ApiException;
+import com.example.logging.ThrottledErrorLogger;
+import com.example.model.Student;
+import com.example.repository.StudentRepository;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Full-text candidate search over an embedded Lucene index: name,
+ * college, degree and resume text are searchable, level and score are
+ * filters. Searches read a near-real-time snapshot and never touch the
+ * database.
+ *
+ * Updates are queued by student id and applied on a small worker pool,
+ * because extracting resume text can take a while. Repeated updates for
+ * the same student collapse into one. If the index is empty at startup
+ * it is rebuilt from the students table in the background.
+ */
+@Service
+public class CandidateSearchService {
+    private static final Logger log = LoggerFactory.getLogger(CandidateSearchService.class);
+    private static final ThrottledErrorLogger errorLog = new ThrottledErrorLogger(log);
+
+    private static final int MAX_RESULTS = 100;
+    private static final Map<String, Float> FIELD_WEIGHTS = Map.of(
+        "name", 3f, "degree", 2f, "college", 1.5f, "resume", 1f);
+
+    private final StudentRepository studentRepository;
+    private final ResumeTextExtractor textExtractor;
+    private final JdbcTemplate streamingJdbc;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Path indexPath;
+    // Closed and reopened around a CRaC checkpoint (see suspend/resume). Users of writer and
+    // searcherManager hold the read lock; close() runs under the write lock, so it waits for them.
+    private volatile FSDirectory directory;
+    private volatile IndexWriter writer;
+    private volatile SearcherManager searcherManager;
+    private final ReentrantReadWriteLock indexLock = new ReentrantReadWriteLock();
+    private final ThreadPoolExecutor workers;
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    // Updates that arrived while the index was closed; queued again on resume
+    private final Set<Long> deferred = ConcurrentHashMap.newKeySet();
+
+    public CandidateSearchService(StudentRepository studentRepository, ResumeTextExtractor textExtractor,
+                                  DataSource dataSource,
+                                  @Value("${skillfit.search.index-dir:data/search-index}") String indexDir,
+                                  @Value("${skillfit.search.index-threads:2}") int threads,
+                                  @Value("${skillfit.search.queue-capacity:100000}") int queueCapacity) throws IOException {
+        this.studentRepository = studentRepository;
+        this.textExtractor = textExtractor;
+        this.streamingJdbc = new JdbcTemplate(dataSource);
+        this.streamingJdbc.setFetchSize(1000);
+        this.indexPath = Paths.get(indexDir);
+        open();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), r -> {
+                Thread t = new Thread(r, "candidate-index-" + threadCount.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+    }
+
+    // Build the index on first start (or after the index directory was removed)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        IndexWriter current = writer;
+        if (current != null && current.getDocStats().numDocs == 0) {
+            workers.execute(this::rebuild);
+        }
+    }
+
+    /**
+     * Queue a student for (re)indexing; call after anything searchable changes
+     */
+    public void indexStudent(Long studentId) {
+        if (studentId == null || !pending.add(studentId)) {
+            return; // already queued; the worker reads the latest state
+        }
+        try {
+            workers.execute(() -> {
+                pending.remove(studentId);
+                indexLock.readLock().lock();
+                try {
+                    IndexWriter current = writer;
+                    if (current == null) {
+                        deferred.add(studentId); // suspended; resume() queues it again
+                        return;
+                    }
+                    Student student = studentRepository.findById(studentId).orElse(null);
+                    if (student == null) {
+                        current.deleteDocuments(new Term("id", studentId.toString()));
+                    } else {
+                        current.updateDocument(new Term("id", studentId.toString()), toDocument(student.getId(),
+                            student.getName(), student.getCollege(), student.getDegree(), student.getLevel(),
+                            student.getScore(), student.getResumePath()));
+                    }
+                } catch (Exception e) {
+                    errorLog.error("Indexing student {} failed", e, studentId);
+                } finally {
+                    indexLock.readLock().unlock();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(studentId);
+            log.warn("Candidate index queue full; student {} not reindexed", studentId);
+        }
+    }
+
+    /**
+     * Ranked candidate search
+     * @param query Free text (skills, name, college...); supports "phrases", -exclusions and prefix*
+     * @param level Only this level (nullable)
+     * @param minScore Minimum latest score (nullable)
+     * @param maxScore Maximum latest score (nullable)
+     * @param limit Maximum results (capped at 100)
+     * @return Matches, best first; sorted by score when there is no query text
+     */
+    public Map<String, Object> search(String query, String level, Integer minScore, Integer maxScore,
+                                      int limit) throws IOException {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        boolean hasText = query != null && !query.isBlank();
+        if (hasText) {
+            SimpleQueryParser parser = new SimpleQueryParser(analyzer, FIELD_WEIGHTS);
+            parser.setDefaultOperator(BooleanClause.Occur.MUST);
+            builder.add(parser.parse(query), BooleanClause.Occur.MUST);
+        } else {
+            builder.add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST);
+        }
+        if (level != null && !level.isBlank()) {
+            builder.add(new TermQuery(new Term("level", level.trim().toLowerCase(Locale.ROOT))), BooleanClause.Occur.FILTER);
+        }
+        if (minScore != null || maxScore != null) {
+            builder.add(IntPoint.newRangeQuery("score",
+                minScore != null ? minScore : Integer.MIN_VALUE,
+                maxScore != null ? maxScore : Integer.MAX_VALUE), BooleanClause.Occur.FILTER);
+        }
+        Query luceneQuery = builder.build();
+        int n = Math.max(1, Math.min(limit, MAX_RESULTS));
+
+        indexLock.readLock().lock();
+        try {
+            SearcherManager manager = searcherManager;
+            if (manager == null) {
+                throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "SEARCH_UNAVAILABLE",
+                    "Candidate search is temporarily unavailable. Please try again shortly.");
+            }
+            return search(manager, luceneQuery, n, hasText);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    private Map<String, Object> search(SearcherManager manager, Query luceneQuery, int n,
+                                       boolean hasText) throws IOException {
+        IndexSearcher searcher = manager.acquire();
+        try {
+            TopDocs top = hasText
+                ? searcher.search(luceneQuery, n)
+                : searcher.search(luceneQuery, n, new Sort(new SortField("score", SortField.Type.INT, true)));
+            List<Map<String, Object>> candidates = new ArrayList<>(top.scoreDocs.length);
+            for (ScoreDoc hit : top.scoreDocs) {
+                Document doc = searcher.storedFields().document(hit.doc);
+                Map<String, Object> candidate = new HashMap<>();
+                candidate.put("id", Long.parseLong(doc.get("id")));
+                candidate.put("name", doc.get("name"));
+                candidate.put("college", doc.get("college"));
+                candidate.put("degree", doc.get("degree"));
+                candidate.put("level", doc.get("levelDisplay"));
+                candidate.put("score", doc.getField("scoreValue").numericValue().intValue());
+                candidate.put("hasResume", "true".equals(doc.get("hasResume")));
+                if (hasText) {
+                    candidate.put("relevance", hit.score);
+                }
+                candidates.add(candidate);
+            }
+            Map<String, Object> res = new HashMap<>();
+            res.put("candidates", candidates);
+            res.put("totalMatches", top.totalHits.value);
+            res.put("totalIsExact", top.totalHits.relation == TotalHits.Relation.EQUAL_TO);
+            return res;
+        } finally {
+            manager.release(searcher);
+        }
+    }
+
+    private Document toDocument(long id, String name, String college, String degree, String level,
+                                int score, String resumeKey) throws IOException {
+        Document doc = new Document();
+        doc.add(new StringField("id", Long.toString(id), Field.Store.YES));
+        doc.add(new TextField("name", nullToEmpty(name), Field.Store.YES));
+        doc.add(new TextField("college", nullToEmpty(college), Field.Store.YES));
+        doc.add(new TextField("degree", nullToEmpty(degree), Field.Store.YES));
+        doc.add(new StringField("level", nullToEmpty(level).toLowerCase(Locale.ROOT), Field.Store.NO));
+        doc.add(new StoredField("levelDisplay", nullToEmpty(level)));
+        doc.add(new IntPoint("score", score));
+        doc.add(new NumericDocValuesField("score", score));
+        doc.add(new StoredField("scoreValue", score));
+        doc.add(new StoredField("hasResume", resumeKey != null ? "true" : "false"));
+        if (resumeKey != null) {
+            doc.add(new TextField("resume", textExtractor.textOf(resumeKey), Field.Store.NO));
+        }
+        return doc;
+    }
+
+    private void rebuild() {
+        long start = System.currentTimeMillis();
+        int[] count = { 0 };
+        indexLock.readLock().lock();
+        try {
+            IndexWriter current = writer;
+            SearcherManager manager = searcherManager;
+            if (current == null) {
+                log.info("Candidate index closed; rebuild skipped");
+                return;
+            }
+            streamingJdbc.query("SELECT id, name, college, degree, level, score, resume_path FROM students", rs -> {
+                long id = rs.getLong(1);
+                try {
+                    current.updateDocument(new Term("id", Long.toString(id)), toDocument(id, rs.getString(2),
+                        rs.getString(3), rs.getString(4), rs.getString(5), rs.getInt(6), rs.getString(7)));
+                    count[0]++;
+                } catch (IOException e) {
+                    errorLog.error("Indexing student {} failed", e, id);
+                }
+            });
+            current.commit();
+            manager.maybeRefresh();
+            log.info("Candidate index rebuilt: {} students in {} ms", count[0], System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            errorLog.error("Candidate index rebuild failed", e);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    // Make recent updates searchable
+    @Scheduled(fixedDelay = 1000)
+    public void refresh() throws IOException {
+        indexLock.readLock().lock();
+        try {
+            SearcherManager manager = searcherManager;
+            if (manager != null) {
+                manager.maybeRefresh();
+            }
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    // Persist recent updates so a restart does not lose them
+    @Scheduled(fixedDelay = 30000)
+    public void commit() throws IOException {
+        indexLock.readLock().lock();
+        try {
+            IndexWriter current = writer;
+            if (current != null && current.hasUncommittedChanges()) {
+                current.commit();
+            }
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    public int getQueuedUpdates() {
+        return workers.getQueue().size();
+    }
+
+    /**
+     * Finish queued updates, commit and release the index files (before a CRaC checkpoint).
+     * Searches and updates still running finish first; later ones see the index closed.
+     */
+    public synchronized void suspend() throws IOException, InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        long deadline = System.currentTimeMillis() + 10000;
+        while ((workers.getActiveCount() > 0 || !workers.getQueue().isEmpty())
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        closeExclusively();
+    }
+
+    /**
+     * Reopen the index after restore
+     */
+    public synchronized void resume() throws IOException {
+        if (writer == null) {
+            indexLock.writeLock().lock();
+            try {
+                open();
+            } finally {
+                indexLock.writeLock().unlock();
+            }
+        }
+        for (Long studentId : deferred) {
+            deferred.remove(studentId);
+            indexStudent(studentId);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() throws IOException, InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+        if (writer != null) {
+            closeExclusively();
+        }
+    }
+
+    private void closeExclusively() throws IOException {
+        indexLock.writeLock().lock();
+        try {
+            close();
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    private void open() throws IOException {
+        directory = FSDirectory.open(indexPath);
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+            .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    // IndexWriter.close commits pending changes
+    private void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+        searcherManager = null;
+        writer = null;
+        directory = null;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
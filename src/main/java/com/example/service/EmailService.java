@@ -1,16 +1,38 @@
 package com.example.service;
 
+import com.example.logging.ThrottledErrorLogger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 @Service
 public class EmailService {
+    private static final Logger log = LoggerFactory.getLogger(EmailService.class);
+    private static final ThrottledErrorLogger errorLog = new ThrottledErrorLogger(log);
+    
+    private static final int OUTBOX_CAPACITY = 5000;
     
     @Autowired
     private JavaMailSender mailSender;
     
+    // Background outbox for bulk notification mail, so SMTP latency never blocks callers
+    private final ThreadPoolExecutor outbox = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(OUTBOX_CAPACITY),
+            r -> {
+                Thread t = new Thread(r, "email-outbox");
+                t.setDaemon(true);
+                return t;
+            });
+    
     /**
      * Send OTP email for registration
      * @param to Recipient email
@@ -33,8 +55,32 @@ public class EmailService {
             );
             mailSender.send(message);
         } catch (Exception e) {
-            System.err.println("Error sending OTP email: " + e.getMessage());
-            e.printStackTrace();
+            errorLog.error("Error sending OTP email", e);
+        }
+    }
+    
+    /**
+     * Send a one-time login code
+     * @param to Recipient email
+     * @param otp OTP code
+     * @param name User's name
+     */
+    public void sendLoginOtpEmail(String to, String otp, String name) {
+        try {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(to);
+            message.setSubject("SkillFit - Login Code");
+            message.setText(
+                "Hello " + name + ",\n\n" +
+                "Your SkillFit login code is: " + otp + "\n\n" +
+                "This code will expire in 5 minutes.\n\n" +
+                "If you didn't try to log in, please ignore this email.\n\n" +
+                "Best regards,\n" +
+                "SkillFit Team"
+            );
+            mailSender.send(message);
+        } catch (Exception e) {
+            errorLog.error("Error sending login code email", e);
         }
     }
     
@@ -62,8 +108,69 @@ public class EmailService {
             );
             mailSender.send(message);
         } catch (Exception e) {
-            System.err.println("Error sending confirmation email: " + e.getMessage());
-            e.printStackTrace();
+            errorLog.error("Error sending confirmation email", e);
+        }
+    }
+    
+    /**
+     * Queue a "you have a new message" notification email
+     * @param to Recipient email
+     * @param name Recipient's name
+     * @param senderName Who sent the message
+     * @param subject Subject of the message
+     * @return false if the outbox is full and the email was dropped
+     */
+    public boolean enqueueMessageNotification(String to, String name, String senderName, String subject) {
+        try {
+            outbox.execute(() -> sendMessageNotification(to, name, senderName, subject));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Number of emails waiting in the outbox
+     */
+    public int getOutboxBacklog() {
+        return outbox.getQueue().size();
+    }
+    
+    /**
+     * Wait until the outbox is empty and no email is being sent (before a CRaC checkpoint)
+     * @return false if mail was still being sent when the timeout expired
+     */
+    public boolean awaitOutboxIdle(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (outbox.getActiveCount() > 0 || !outbox.getQueue().isEmpty()) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            Thread.sleep(50);
+        }
+        return true;
+    }
+    
+    private void sendMessageNotification(String to, String name, String senderName, String subject) {
+        try {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(to);
+            message.setSubject("SkillFit - New message: " + subject);
+            message.setText(
+                "Hello " + name + ",\n\n" +
+                "You have a new message from " + senderName + " on SkillFit.\n\n" +
+                "Log in to your SkillFit account to read it.\n\n" +
+                "Best regards,\n" +
+                "SkillFit Team"
+            );
+            mailSender.send(message);
+        } catch (Exception e) {
+            errorLog.error("Error sending message notification email", e);
         }
     }
+    
+    @PreDestroy
+    public void shutdown() {
+        outbox.shutdown();
+    }
 }
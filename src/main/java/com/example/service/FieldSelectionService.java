@@ -0,0 +1,245 @@
+package com.example.service;
+
+import com.example.exception.ApiException;
+import com.example.model.Job;
+import com.example.model.Student;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sparse fieldsets for list endpoints (?fields=id,name,score): the
+ * requested fields are checked against a whitelist and only their
+ * columns are selected, through a Criteria tuple query, so unrequested
+ * TEXT columns are never read or serialized.
+ */
+@Service
+public class FieldSelectionService {
+
+    public static final Set<String> STUDENT_FIELDS = Set.of(
+        "id", "name", "email", "college", "degree", "score", "level", "totalQuestions", "takenAt");
+    public static final Set<String> JOB_FIELDS = Set.of(
+        "id", "role", "level", "description", "recruiterId", "companyName");
+
+    private static final Set<String> STUDENT_COLUMNS = Set.of("id", "name", "email", "college", "degree");
+    private static final Set<String> LATEST_RESULT_FIELDS = Set.of("score", "level", "totalQuestions", "takenAt");
+
+    private final EntityManager entityManager;
+
+    public FieldSelectionService(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Parse a comma-separated field list, rejecting unknown names with a 400
+     * @return Requested fields in request order
+     */
+    public static Set<String> parse(String fields, Set<String> allowed) {
+        Set<String> requested = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(name)) {
+                throw new ApiException(HttpStatus.BAD_REQUEST, "INVALID_FIELDS",
+                    "Unknown field '" + name + "'. Allowed: " + String.join(", ", allowed));
+            }
+            requested.add(name);
+        }
+        if (requested.isEmpty()) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "INVALID_FIELDS", "fields must name at least one field");
+        }
+        return requested;
+    }
+
+    /**
+     * Students with only the requested fields. Score, level, totalQuestions
+     * and takenAt describe the latest result (for the recruiter, if given),
+     * with the same defaults as the full listing when there is none.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> students(Set<String> fields, Long recruiterId) {
+        Set<String> columns = new LinkedHashSet<>();
+        columns.add("id");
+        Set<String> resultFields = new LinkedHashSet<>();
+        for (String field : fields) {
+            if (STUDENT_COLUMNS.contains(field)) {
+                columns.add(field);
+            } else if (LATEST_RESULT_FIELDS.contains(field)) {
+                resultFields.add(field);
+            }
+        }
+        // Without a recruiter filter the student row already holds the latest score and level,
+        // but registration fills it too, so students without results still get the defaults
+        boolean fromStudentRow = recruiterId == null
+            && !resultFields.contains("totalQuestions") && !resultFields.contains("takenAt");
+        if (fromStudentRow) {
+            columns.addAll(resultFields);
+        }
+
+        List<Map<String, Object>> rows = select(Student.class, columns);
+        Map<Long, Map<String, Object>> latest = fromStudentRow || resultFields.isEmpty()
+            ? Map.of() : latestResults(resultFields, recruiterId);
+        Set<Long> tested = fromStudentRow && !resultFields.isEmpty() ? studentsWithResults() : Set.of();
+
+        List<Map<String, Object>> students = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            Long id = (Long) row.get("id");
+            Map<String, Object> latestResult = latest.get(id);
+            boolean untested = fromStudentRow && !tested.contains(id);
+            Map<String, Object> student = new LinkedHashMap<>();
+            for (String field : fields) {
+                Object value = untested && resultFields.contains(field) ? null
+                    : row.containsKey(field) ? row.get(field)
+                    : latestResult != null ? latestResult.get(field) : null;
+                student.put(field, value != null ? value : noResultDefault(field));
+            }
+            students.add(student);
+        }
+        return students;
+    }
+
+    /**
+     * Jobs with only the requested fields; companyName comes from one
+     * batched recruiter lookup instead of one query per job
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> jobs(Set<String> fields) {
+        Set<String> columns = new LinkedHashSet<>(fields);
+        columns.remove("companyName");
+        boolean withCompany = fields.contains("companyName");
+        if (withCompany) {
+            columns.add("recruiterId");
+        }
+        if (columns.isEmpty()) {
+            columns.add("id");
+        }
+        List<Map<String, Object>> rows = select(Job.class, columns);
+
+        Map<Long, String> companies = new HashMap<>();
+        if (withCompany) {
+            Set<Long> recruiterIds = new LinkedHashSet<>();
+            for (Map<String, Object> row : rows) {
+                if (row.get("recruiterId") != null) {
+                    recruiterIds.add((Long) row.get("recruiterId"));
+                }
+            }
+            if (!recruiterIds.isEmpty()) {
+                List<Object[]> pairs = entityManager.createQuery(
+                        "SELECT r.id, r.company FROM Recruiter r WHERE r.id IN :ids", Object[].class)
+                    .setParameter("ids", recruiterIds)
+                    .getResultList();
+                for (Object[] pair : pairs) {
+                    companies.put((Long) pair[0], (String) pair[1]);
+                }
+            }
+        }
+
+        List<Map<String, Object>> jobs = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            Map<String, Object> job = new LinkedHashMap<>();
+            for (String field : fields) {
+                if ("companyName".equals(field)) {
+                    Long recruiterId = (Long) row.get("recruiterId");
+                    String company = recruiterId != null ? companies.get(recruiterId) : null;
+                    job.put(field, recruiterId == null ? "General" : company != null ? company : "Unknown Company");
+                } else {
+                    job.put(field, row.get(field));
+                }
+            }
+            jobs.add(job);
+        }
+        return jobs;
+    }
+
+    // SELECT <attributes> FROM <entity> ORDER BY id; attribute names come from the whitelists only
+    private List<Map<String, Object>> select(Class<?> entity, Collection<String> attributes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<?> root = query.from(entity);
+        List<Selection<?>> selections = new ArrayList<>(attributes.size());
+        for (String attribute : attributes) {
+            selections.add(root.get(attribute).alias(attribute));
+        }
+        query.multiselect(selections).orderBy(cb.asc(root.get("id")));
+
+        TypedQuery<Tuple> typed = entityManager.createQuery(query);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : typed.getResultList()) {
+            Map<String, Object> row = new HashMap<>();
+            for (String attribute : attributes) {
+                row.put(attribute, tuple.get(attribute));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // Ids of students with at least one result; read from the result table's student index only
+    private Set<Long> studentsWithResults() {
+        return new HashSet<>(entityManager.createQuery(
+            "SELECT DISTINCT r.student.id FROM ResultEntity r", Long.class).getResultList());
+    }
+
+    // Latest result per student in one query, selecting only the requested result columns
+    private Map<Long, Map<String, Object>> latestResults(Set<String> resultFields, Long recruiterId) {
+        List<String> fields = new ArrayList<>(resultFields);
+        StringBuilder jpql = new StringBuilder("SELECT r.student.id");
+        for (String field : fields) {
+            jpql.append(", r.").append(field);
+        }
+        jpql.append(" FROM ResultEntity r WHERE r.takenAt = (SELECT MAX(r2.takenAt) FROM ResultEntity r2")
+            .append(" WHERE r2.student = r.student")
+            .append(recruiterId != null ? " AND r2.recruiterId = :recruiterId)" : ")");
+        if (recruiterId != null) {
+            jpql.append(" AND r.recruiterId = :recruiterId");
+        }
+        jpql.append(" ORDER BY r.id DESC");
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        if (recruiterId != null) {
+            query.setParameter("recruiterId", recruiterId);
+        }
+
+        Map<Long, Map<String, Object>> latest = new HashMap<>();
+        for (Object[] row : query.getResultList()) {
+            Long studentId = (Long) row[0];
+            if (latest.containsKey(studentId)) {
+                continue; // two results with the same takenAt; the newest id wins
+            }
+            Map<String, Object> values = new HashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                values.put(fields.get(i), row[i + 1]);
+            }
+            latest.put(studentId, values);
+        }
+        return latest;
+    }
+
+    // Same placeholders RecruiterController.getAllStudents uses for students without a result
+    private static Object noResultDefault(String field) {
+        switch (field) {
+            case "score": return 0;
+            case "level": return "No test taken";
+            case "totalQuestions": return 10;
+            default: return null;
+        }
+    }
+}
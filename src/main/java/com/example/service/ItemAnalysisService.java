@@ -0,0 +1,145 @@
+package com.example.service;
+
+import com.example.model.AnswerRecord;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Classical item analysis (difficulty, point-biserial discrimination and
+ * distractor counts) computed by streaming over the compact answer records
+ * stored on each result. Memory is proportional to the number of
+ * questions, not the number of results.
+ */
+@Service
+public class ItemAnalysisService {
+
+    private static final int STREAM_FETCH_SIZE = 1000;
+    private static final int TRACKED_CHOICES = 8;
+
+    private final JdbcTemplate streamingJdbc;
+
+    public ItemAnalysisService(DataSource dataSource) {
+        // Results are read row by row; with MySQL this needs useCursorFetch=true on the URL
+        this.streamingJdbc = new JdbcTemplate(dataSource);
+        this.streamingJdbc.setFetchSize(STREAM_FETCH_SIZE);
+    }
+
+    // Running sums for one question
+    private static class ItemAccumulator {
+        long attempts;
+        long correct;
+        double scoreSum;         // total score % of everyone who saw the item
+        double scoreSqSum;
+        double correctScoreSum;  // total score % of those who got it right
+        final long[] choiceCounts = new long[TRACKED_CHOICES];
+        long unanswered;
+        long other;
+
+        void add(double scorePct, boolean isCorrect, int choice) {
+            attempts++;
+            scoreSum += scorePct;
+            scoreSqSum += scorePct * scorePct;
+            if (isCorrect) {
+                correct++;
+                correctScoreSum += scorePct;
+            }
+            if (choice == AnswerRecord.UNANSWERED) {
+                unanswered++;
+            } else if (choice < TRACKED_CHOICES) {
+                choiceCounts[choice]++;
+            } else {
+                other++;
+            }
+        }
+
+        Map<String, Object> toMap(Long questionId) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("questionId", questionId);
+            row.put("attempts", attempts);
+            row.put("correct", correct);
+            row.put("difficulty", attempts > 0 ? (double) correct / attempts : 0.0);
+            row.put("discrimination", pointBiserial());
+            List<Long> choices = new ArrayList<>();
+            for (long count : choiceCounts) {
+                choices.add(count);
+            }
+            row.put("choiceCounts", choices);
+            row.put("unanswered", unanswered);
+            row.put("otherAnswers", other);
+            return row;
+        }
+
+        // Point-biserial correlation between getting this item right and the total score
+        Double pointBiserial() {
+            long wrong = attempts - correct;
+            if (correct == 0 || wrong == 0) {
+                return null;
+            }
+            double mean = scoreSum / attempts;
+            double variance = scoreSqSum / attempts - mean * mean;
+            if (variance <= 0) {
+                return null;
+            }
+            double meanCorrect = correctScoreSum / correct;
+            double meanWrong = (scoreSum - correctScoreSum) / wrong;
+            double p = (double) correct / attempts;
+            return (meanCorrect - meanWrong) / Math.sqrt(variance) * Math.sqrt(p * (1 - p));
+        }
+    }
+
+    /**
+     * Item statistics for every question answered in a recruiter's tests
+     * @param recruiterId Recruiter whose results are analysed
+     * @return One row per question, ordered by question ID
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> analyseRecruiterItems(Long recruiterId) {
+        Map<Long, ItemAccumulator> items = new TreeMap<>();
+        streamingJdbc.query(
+            "SELECT score, total_questions, question_ids, correct_mask, answer_choices FROM results " +
+            "WHERE recruiter_id = ? AND question_ids IS NOT NULL",
+            rs -> {
+                int total = rs.getInt(2);
+                double scorePct = total > 0 ? rs.getInt(1) * 100.0 / total : 0.0;
+                AnswerRecord record = AnswerRecord.decode(rs.getBytes(3), rs.getBytes(4), rs.getBytes(5));
+                for (int i = 0; i < record.size(); i++) {
+                    items.computeIfAbsent(record.questionId(i), id -> new ItemAccumulator())
+                         .add(scorePct, record.isCorrect(i), record.choice(i));
+                }
+            },
+            recruiterId);
+
+        List<Map<String, Object>> rows = new ArrayList<>(items.size());
+        items.forEach((questionId, acc) -> rows.add(acc.toMap(questionId)));
+        return rows;
+    }
+
+    /**
+     * Attempts and correct answers per question over all stored answer records
+     * @return questionId -> {attempts, correct}
+     */
+    public Map<Long, long[]> countAllAnswers() {
+        Map<Long, long[]> counts = new HashMap<>();
+        streamingJdbc.query(
+            "SELECT question_ids, correct_mask FROM results WHERE question_ids IS NOT NULL",
+            rs -> {
+                AnswerRecord record = AnswerRecord.decode(rs.getBytes(1), rs.getBytes(2), null);
+                for (int i = 0; i < record.size(); i++) {
+                    long[] c = counts.computeIfAbsent(record.questionId(i), id -> new long[2]);
+                    c[0]++;
+                    if (record.isCorrect(i)) {
+                        c[1]++;
+                    }
+                }
+            });
+        return counts;
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk job upsert for partner syndication. Jobs are keyed by the partner's
+ * externalKey (unique per recruiter): known keys are updated, new keys
+ * inserted. Input is read one job at a time and written in batched
+ * chunks, so a nightly feed of thousands of jobs is a handful of round trips.
+ *
+ * Accepts a JSON array of jobs or NDJSON (one job object per line).
+ */
+@Service
+public class JobImportService {
+
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DUPLICATE = "duplicate"; // superseded by a later row with the same key
+    public static final String INVALID = "invalid";
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_ROWS = 50_000;
+    private static final int MAX_ROLE_LENGTH = 500;
+    private static final int MAX_LEVEL_LENGTH = 50;
+    private static final int MAX_KEY_LENGTH = 191;
+
+    private static final String UPSERT_JOB =
+        "INSERT INTO jobs (role, level, description, recruiter_id, external_key) VALUES (?, ?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE role = VALUES(role), level = VALUES(level), description = VALUES(description)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    public JobImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                            ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+    }
+
+    // One validated input row
+    private static class JobRow {
+        int index;
+        String externalKey;
+        String role;
+        String level;
+        String description;
+        Long recruiterId;
+    }
+
+    /**
+     * Upsert jobs from a JSON array or NDJSON stream
+     * @param recruiterId Signed-in recruiter who owns every row; rows naming another recruiter are rejected
+     * @return counts, one status per input row (in input order) and per-row errors
+     */
+    public Map<String, Object> upsertJobs(InputStream in, Long recruiterId) throws IOException {
+        List<String> statuses = new ArrayList<>();
+        List<Map<String, Object>> errors = new ArrayList<>();
+        // Rows of the current chunk by recruiter + key; a repeated key replaces the earlier row
+        Map<String, JobRow> chunk = new LinkedHashMap<>();
+
+        try (MappingIterator<Map<String, Object>> rows = objectMapper.readerForMapOf(Object.class).readValues(in)) {
+            while (true) {
+                Map<String, Object> json;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    json = rows.nextValue();
+                } catch (JsonProcessingException e) {
+                    // Malformed input; nothing after this point can be trusted
+                    addError(errors, statuses.size(), "Invalid JSON: " + e.getOriginalMessage());
+                    statuses.add(INVALID);
+                    break;
+                }
+                if (statuses.size() == MAX_ROWS) {
+                    addError(errors, statuses.size(), "At most " + MAX_ROWS + " jobs per request; the rest were not read");
+                    break;
+                }
+
+                int index = statuses.size();
+                statuses.add(null);
+                JobRow row;
+                try {
+                    row = parseRow(json, recruiterId);
+                } catch (IllegalArgumentException e) {
+                    statuses.set(index, INVALID);
+                    addError(errors, index, e.getMessage());
+                    continue;
+                }
+                row.index = index;
+
+                JobRow previous = chunk.put(row.recruiterId + "\u0000" + row.externalKey, row);
+                if (previous != null) {
+                    statuses.set(previous.index, DUPLICATE);
+                }
+                if (chunk.size() == CHUNK_SIZE) {
+                    writeChunk(chunk.values(), statuses);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk.values(), statuses);
+        }
+
+        int created = Collections.frequency(statuses, CREATED);
+        int updated = Collections.frequency(statuses, UPDATED);
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("rowsRead", statuses.size());
+        summary.put("created", created);
+        summary.put("updated", updated);
+        summary.put("duplicates", Collections.frequency(statuses, DUPLICATE));
+        summary.put("failed", errors.size());
+        summary.put("statuses", statuses);
+        summary.put("errors", errors);
+        return summary;
+    }
+
+    private static void addError(List<Map<String, Object>> errors, int index, String message) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("row", index);
+        error.put("message", message);
+        errors.add(error);
+    }
+
+    private static JobRow parseRow(Map<String, Object> json, Long ownerId) {
+        JobRow row = new JobRow();
+        row.externalKey = text(json, "externalKey", MAX_KEY_LENGTH);
+        row.role = text(json, "role", MAX_ROLE_LENGTH);
+        row.level = text(json, "level", MAX_LEVEL_LENGTH);
+        row.description = text(json, "description", Integer.MAX_VALUE);
+        // Same clean-up as single job creation
+        if (row.description.length() > 1 && row.description.startsWith("\"") && row.description.endsWith("\"")) {
+            row.description = row.description.substring(1, row.description.length() - 1);
+        }
+        Object recruiterId = json.get("recruiterId");
+        if (recruiterId != null && !recruiterId.toString().isBlank()) {
+            try {
+                row.recruiterId = Long.parseLong(recruiterId.toString().trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid recruiterId: " + recruiterId);
+            }
+            if (!row.recruiterId.equals(ownerId)) {
+                throw new IllegalArgumentException("recruiterId must be the signed-in recruiter");
+            }
+        } else {
+            row.recruiterId = ownerId;
+        }
+        return row;
+    }
+
+    private static String text(Map<String, Object> json, String field, int maxLength) {
+        Object value = json.get(field);
+        if (value == null || value.toString().isBlank()) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        String text = value.toString().trim();
+        if (text.length() > maxLength) {
+            throw new IllegalArgumentException(field + " is longer than " + maxLength + " characters");
+        }
+        return text;
+    }
+
+    // Look up which keys already exist, then upsert the whole chunk in one batch
+    private void writeChunk(Collection<JobRow> rows, List<String> statuses) {
+        List<JobRow> chunk = new ArrayList<>(rows);
+        transactionTemplate.executeWithoutResult(tx -> {
+            Set<String> existing = existingKeys(chunk);
+            jdbcTemplate.batchUpdate(UPSERT_JOB, chunk, chunk.size(), (ps, row) -> {
+                ps.setString(1, row.role);
+                ps.setString(2, row.level);
+                ps.setString(3, row.description);
+                ps.setLong(4, row.recruiterId);
+                ps.setString(5, row.externalKey);
+            });
+            for (JobRow row : chunk) {
+                statuses.set(row.index, existing.contains(row.recruiterId + "\u0000" + row.externalKey) ? UPDATED : CREATED);
+            }
+        });
+    }
+
+    // Matches on the (recruiter_id, external_key) pair, so other recruiters' jobs with the same key are not read
+    private Set<String> existingKeys(List<JobRow> chunk) {
+        StringBuilder sql = new StringBuilder(
+            "SELECT recruiter_id, external_key FROM jobs WHERE (recruiter_id, external_key) IN (");
+        Object[] args = new Object[chunk.size() * 2];
+        int[] types = new int[chunk.size() * 2];
+        for (int i = 0; i < chunk.size(); i++) {
+            sql.append(i == 0 ? "(?, ?)" : ", (?, ?)");
+            args[2 * i] = chunk.get(i).recruiterId;
+            types[2 * i] = Types.BIGINT;
+            args[2 * i + 1] = chunk.get(i).externalKey;
+            types[2 * i + 1] = Types.VARCHAR;
+        }
+        sql.append(")");
+        Set<String> keys = new HashSet<>();
+        jdbcTemplate.query(sql.toString(), args, types,
+            rs -> { keys.add(rs.getLong(1) + "\u0000" + rs.getString(2)); });
+        return keys;
+    }
+}
@@ -0,0 +1,328 @@
+package com.example.service;
+
+import com.example.model.Message;
+import com.example.model.ResultEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-Sent Events hub that pushes new-message and new-result events to
+ * connected students and recruiters, so the frontend no longer has to poll.
+ *
+ * Streams are plain async servlet responses: an idle connection holds no
+ * request thread, only its socket and emitter. Events are written by a small
+ * dispatcher pool so request threads never block on slow clients. Each
+ * stream has its own bounded buffer and at most one drain task queued or
+ * running, so one slow client can hold at most one dispatcher thread. A
+ * stream whose buffer fills up, or whose current write has been stuck for
+ * a whole heartbeat interval, is closed; EventSource reconnects on its own.
+ */
+@Service
+public class NotificationService {
+
+    public static final String STUDENT = "student";
+    public static final String RECRUITER = "recruiter";
+
+    // One open stream with its pending events
+    private static final class Stream {
+        final String channel;
+        final SseEmitter emitter;
+        final Queue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+        final AtomicInteger pendingCount = new AtomicInteger();
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile long sendingSince; // 0 when no write is in progress
+        volatile boolean closed;
+
+        Stream(String channel, SseEmitter emitter) {
+            this.channel = channel;
+            this.emitter = emitter;
+        }
+    }
+
+    private final Map<String, Set<Stream>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger openStreams = new AtomicInteger();
+    private final ThreadPoolExecutor dispatcher;
+    private final long streamTimeoutMs;
+    private final int maxStreamsPerUser;
+    private final int maxPendingPerStream;
+    private final long heartbeatMs;
+
+    public NotificationService(@Value("${skillfit.notifications.stream-timeout-ms:1800000}") long streamTimeoutMs,
+                               @Value("${skillfit.notifications.max-streams-per-user:5}") int maxStreamsPerUser,
+                               @Value("${skillfit.notifications.dispatch-threads:4}") int dispatchThreads,
+                               @Value("${skillfit.notifications.dispatch-queue-size:10000}") int dispatchQueueSize,
+                               @Value("${skillfit.notifications.max-pending-per-stream:100}") int maxPendingPerStream,
+                               @Value("${skillfit.notifications.heartbeat-ms:25000}") long heartbeatMs) {
+        this.streamTimeoutMs = streamTimeoutMs;
+        this.maxStreamsPerUser = maxStreamsPerUser;
+        this.maxPendingPerStream = maxPendingPerStream;
+        this.heartbeatMs = heartbeatMs;
+        AtomicInteger threadCount = new AtomicInteger();
+        // Holds at most one drain task per stream; rejected streams are closed
+        this.dispatcher = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(dispatchQueueSize),
+                r -> {
+                    Thread t = new Thread(r, "sse-dispatch-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    /**
+     * Open a new event stream for a user
+     * @param userType STUDENT or RECRUITER
+     * @param userId ID of the student/recruiter
+     * @return Emitter to return from the controller
+     */
+    public SseEmitter subscribe(String userType, Long userId) {
+        String channel = channel(userType, userId);
+        Stream stream = new Stream(channel, new SseEmitter(streamTimeoutMs));
+        Stream[] evicted = new Stream[1];
+        subscribers.compute(channel, (k, streams) -> {
+            if (streams == null) {
+                // Keeps insertion order, so the first element is the oldest stream
+                streams = new CopyOnWriteArraySet<>();
+            }
+            // Oldest stream of this user is closed when a browser opens too many tabs
+            if (streams.size() >= maxStreamsPerUser) {
+                evicted[0] = streams.iterator().next();
+                streams.remove(evicted[0]);
+                openStreams.decrementAndGet();
+            }
+            streams.add(stream);
+            return streams;
+        });
+        openStreams.incrementAndGet();
+        if (evicted[0] != null) {
+            close(evicted[0]);
+        }
+
+        SseEmitter emitter = stream.emitter;
+        Runnable cleanup = () -> unsubscribe(stream);
+        emitter.onCompletion(cleanup);
+        emitter.onTimeout(() -> {
+            cleanup.run();
+            emitter.complete();
+        });
+        emitter.onError(e -> cleanup.run());
+
+        try {
+            emitter.send(SseEmitter.event().comment("connected"));
+        } catch (IOException e) {
+            unsubscribe(stream);
+        }
+        return emitter;
+    }
+
+    /**
+     * Push a new-message event to the recipient student
+     */
+    public void notifyMessage(Message message) {
+        if (message.getStudent() == null || !hasSubscribers(STUDENT, message.getStudent().getId())) {
+            return;
+        }
+        Map<String, Object> data = new HashMap<>();
+        data.put("id", message.getId());
+        data.put("subject", message.getSubject());
+        data.put("sentAt", message.getSentAt());
+        if (message.getRecruiter() != null) {
+            data.put("senderType", "recruiter");
+            data.put("senderId", message.getRecruiter().getId());
+            data.put("senderName", message.getRecruiter().getName());
+        } else if (message.getSenderStudent() != null) {
+            data.put("senderType", "student");
+            data.put("senderId", message.getSenderStudent().getId());
+            data.put("senderName", message.getSenderStudent().getName());
+        }
+        publish(STUDENT, message.getStudent().getId(), "message", data);
+    }
+
+    /**
+     * Push a new-result event to the student and, if linked, the recruiter
+     */
+    public void notifyResult(ResultEntity result) {
+        Long studentId = result.getStudent() != null ? result.getStudent().getId() : null;
+        boolean toStudent = studentId != null && hasSubscribers(STUDENT, studentId);
+        boolean toRecruiter = result.getRecruiterId() != null && hasSubscribers(RECRUITER, result.getRecruiterId());
+        if (!toStudent && !toRecruiter) {
+            return;
+        }
+        if (toStudent) {
+            publish(STUDENT, studentId, "result", resultData(result, studentId));
+        }
+        if (toRecruiter) {
+            // Own map: the student's event may still be queued when this one is built
+            Map<String, Object> data = resultData(result, studentId);
+            data.put("studentName", result.getStudent().getName());
+            publish(RECRUITER, result.getRecruiterId(), "result", data);
+        }
+    }
+
+    private static Map<String, Object> resultData(ResultEntity result, Long studentId) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("id", result.getId());
+        data.put("studentId", studentId);
+        data.put("score", result.getScore());
+        data.put("totalQuestions", result.getTotalQuestions());
+        data.put("level", result.getLevel());
+        data.put("takenAt", result.getTakenAt());
+        return data;
+    }
+
+    /**
+     * Queue an event for every open stream of a user; never blocks the caller
+     */
+    public void publish(String userType, Long userId, String eventName, Object data) {
+        Set<Stream> streams = subscribers.get(channel(userType, userId));
+        if (streams == null || streams.isEmpty()) {
+            return;
+        }
+        for (Stream stream : streams) {
+            enqueue(stream, SseEmitter.event().name(eventName).data(data, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    /**
+     * Heartbeat so proxies keep idle streams open and dead clients are detected.
+     * Idle streams get a ping through their own drain task; streams with
+     * pending events need none, and a stream stuck in one write since the
+     * last heartbeat is closed.
+     */
+    @Scheduled(fixedRateString = "${skillfit.notifications.heartbeat-ms:25000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        subscribers.values().forEach(streams -> {
+            for (Stream stream : streams) {
+                long since = stream.sendingSince;
+                if (since != 0 && now - since > heartbeatMs) {
+                    close(stream);
+                } else if (!stream.draining.get()) {
+                    enqueue(stream, SseEmitter.event().comment("ping")); // builders are single-use
+                }
+            }
+        });
+    }
+
+    public int getOpenStreams() {
+        return openStreams.get();
+    }
+
+    public int getPendingEvents() {
+        int pending = 0;
+        for (Set<Stream> streams : subscribers.values()) {
+            for (Stream stream : streams) {
+                pending += stream.pendingCount.get();
+            }
+        }
+        return pending;
+    }
+
+    private boolean hasSubscribers(String userType, Long userId) {
+        Set<Stream> streams = subscribers.get(channel(userType, userId));
+        return streams != null && !streams.isEmpty();
+    }
+
+    // Buffer an event; a stream that has fallen too far behind is closed instead
+    private void enqueue(Stream stream, SseEmitter.SseEventBuilder event) {
+        if (stream.closed) {
+            return;
+        }
+        if (stream.pendingCount.incrementAndGet() > maxPendingPerStream) {
+            stream.pendingCount.decrementAndGet();
+            close(stream);
+            return;
+        }
+        stream.pending.add(event);
+        schedule(stream);
+    }
+
+    private void schedule(Stream stream) {
+        if (!stream.draining.compareAndSet(false, true)) {
+            return; // the running drain task picks the event up
+        }
+        try {
+            dispatcher.execute(() -> drain(stream));
+        } catch (RejectedExecutionException e) {
+            // Dispatcher saturated or shutting down
+            stream.draining.set(false);
+            close(stream);
+        }
+    }
+
+    private void drain(Stream stream) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!stream.closed && (event = stream.pending.poll()) != null) {
+                stream.pendingCount.decrementAndGet();
+                stream.sendingSince = System.currentTimeMillis();
+                try {
+                    stream.emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away; drop the stream
+                    stream.closed = true;
+                    unsubscribe(stream);
+                    stream.emitter.completeWithError(e);
+                    return;
+                } finally {
+                    stream.sendingSince = 0;
+                }
+            }
+        } finally {
+            stream.draining.set(false);
+        }
+        // An event may have been added after the last poll but before draining was cleared
+        if (!stream.closed && !stream.pending.isEmpty()) {
+            schedule(stream);
+        }
+    }
+
+    private void close(Stream stream) {
+        stream.closed = true;
+        unsubscribe(stream);
+        stream.pending.clear();
+        stream.pendingCount.set(0);
+        stream.emitter.complete();
+    }
+
+    private void unsubscribe(Stream stream) {
+        subscribers.computeIfPresent(stream.channel, (k, streams) -> {
+            if (streams.remove(stream)) {
+                openStreams.decrementAndGet();
+            }
+            return streams.isEmpty() ? null : streams;
+        });
+    }
+
+    private static String channel(String userType, Long userId) {
+        return userType + ":" + userId;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.values().forEach(streams -> streams.forEach(stream -> {
+            stream.closed = true;
+            stream.emitter.complete();
+        }));
+        subscribers.clear();
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.service;
 
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.security.SecureRandom;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.Random;
@@ -13,14 +15,14 @@ public class OtpService {
     private final Map<String, OtpData> otpStore = new ConcurrentHashMap<>();
     private static final int OTP_LENGTH = 6;
     private static final long OTP_EXPIRY_TIME = 5 * 60 * 1000; // 5 minutes in milliseconds
-    private final Random random = new Random();
+    private volatile Random random = new SecureRandom();
     
     // Inner class to store OTP and expiry time
     private static class OtpData {
         String otp;
         long expiryTime;
         String name;
-        String password; // For recruiters
+        String password; // BCrypt hash, for recruiters
         
         OtpData(String otp, String name) {
             this.otp = otp;
@@ -56,7 +58,7 @@ public class OtpService {
      * Generate and store OTP for recruiter (with password)
      * @param email Email address
      * @param name User's name
-     * @param password User's password
+     * @param password Hash of the user's password (never the plaintext)
      * @return Generated OTP
      */
     public String generateOtp(String email, String name, String password) {
@@ -103,6 +105,30 @@ public class OtpService {
         return null;
     }
     
+    /**
+     * Drop expired OTPs that were never verified
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void purgeExpired() {
+        otpStore.values().removeIf(OtpData::isExpired);
+    }
+    
+    /**
+     * Drop all pending OTPs and reseed the generator. Called around a CRaC
+     * checkpoint so restored instances neither carry nor predict each other's OTPs.
+     */
+    public void reset() {
+        otpStore.clear();
+        random = new SecureRandom();
+    }
+    
+    /**
+     * Number of pending OTPs
+     */
+    public int size() {
+        return otpStore.size();
+    }
+    
     /**
      * Generate random 6-digit OTP
      */
@@ -129,7 +155,7 @@ public class OtpService {
     }
     
     /**
-     * Get stored password for email (for recruiters)
+     * Get stored password hash for email (for recruiters)
      */
     public String getPassword(String email) {
         OtpData data = otpStore.get(email);
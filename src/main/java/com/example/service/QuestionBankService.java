@@ -0,0 +1,166 @@
+package com.example.service;
+
+import com.example.model.AnswerRecord;
+import com.example.model.Job;
+import com.example.model.QuestionEntity;
+import com.example.repository.JobRepository;
+import com.example.repository.QuestionRepository;
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cached, read-only snapshots of the question bank served for a job: the
+ * job's own questions, or the general bank when the job has none.
+ * Snapshots carry a precompiled answer key so scoring never goes back to
+ * the database.
+ */
+@Service
+public class QuestionBankService {
+
+    private static final long SNAPSHOT_TTL_MS = 5 * 60 * 1000; // 5 minutes
+
+    private final QuestionRepository questionRepository;
+    private final JobRepository jobRepository;
+    private final Map<Long, QuestionBank> banks = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong(); // bumped by every invalidate()
+
+    public QuestionBankService(QuestionRepository questionRepository, JobRepository jobRepository) {
+        this.questionRepository = questionRepository;
+        this.jobRepository = jobRepository;
+    }
+
+    /**
+     * Immutable question bank snapshot. Index i of every array refers to the same question.
+     */
+    public static class QuestionBank {
+        private final QuestionEntity[] questions;
+        private final long[] ids;
+        private final String[] answers; // interned, shared across snapshots
+        private final Long recruiterId;
+        private final long builtAt = System.currentTimeMillis();
+
+        QuestionBank(List<QuestionEntity> questions, Long recruiterId) {
+            this.questions = questions.toArray(new QuestionEntity[0]);
+            this.ids = new long[this.questions.length];
+            this.answers = new String[this.questions.length];
+            for (int i = 0; i < this.questions.length; i++) {
+                ids[i] = this.questions[i].getId();
+                String answer = this.questions[i].getCorrectAnswer();
+                answers[i] = answer != null ? answer.intern() : null;
+            }
+            this.recruiterId = recruiterId;
+        }
+
+        public int size() { return questions.length; }
+        public boolean isEmpty() { return questions.length == 0; }
+        public QuestionEntity question(int i) { return questions[i]; }
+        public long id(int i) { return ids[i]; }
+        public String answer(int i) { return answers[i]; }
+        public Long getRecruiterId() { return recruiterId; }
+
+        /**
+         * Score answers against this bank's key
+         * @param served Indexes of the questions that were served, or null for the whole bank
+         * @param userAnswers questionId -> answer
+         */
+        public ScoredTest score(int[] served, Map<String, String> userAnswers) {
+            int count = served != null ? served.length : questions.length;
+            ScoredTest scored = new ScoredTest(count);
+            for (int n = 0; n < count; n++) {
+                int i = served != null ? served[n] : n;
+                String userAnswer = userAnswers.get(Long.toString(ids[i]));
+                boolean isCorrect = userAnswer != null && userAnswer.equalsIgnoreCase(answers[i]);
+                if (isCorrect) {
+                    scored.score++;
+                }
+                scored.answers.add(ids[i], isCorrect, AnswerRecord.choiceOf(userAnswer, questions[i].getOptions()));
+
+                Map<String, Object> qDetail = new HashMap<>();
+                qDetail.put("questionId", ids[i]);
+                qDetail.put("questionText", questions[i].getQuestionText());
+                qDetail.put("options", questions[i].getOptions());
+                qDetail.put("correctAnswer", answers[i]);
+                qDetail.put("userAnswer", userAnswer != null ? userAnswer : "Not answered");
+                qDetail.put("isCorrect", isCorrect);
+                scored.questionDetails.add(qDetail);
+            }
+            return scored;
+        }
+    }
+
+    /**
+     * Outcome of scoring one test
+     */
+    public static class ScoredTest {
+        private int score;
+        private final AnswerRecord answers;
+        private final List<Map<String, Object>> questionDetails;
+
+        ScoredTest(int totalQuestions) {
+            this.answers = new AnswerRecord(totalQuestions);
+            this.questionDetails = new ArrayList<>(totalQuestions);
+        }
+
+        public int getScore() { return score; }
+        public int getTotalQuestions() { return answers.size(); }
+        public AnswerRecord getAnswers() { return answers; }
+        public List<Map<String, Object>> getQuestionDetails() { return questionDetails; }
+    }
+
+    /**
+     * Bank for a job (null for the general test)
+     */
+    public QuestionBank getBank(Long jobId) {
+        long key = jobId != null ? jobId : 0L;
+        QuestionBank bank = banks.get(key);
+        if (bank == null || System.currentTimeMillis() - bank.builtAt > SNAPSHOT_TTL_MS) {
+            long loadedAt = generation.get();
+            QuestionBank loaded = load(jobId);
+            // An invalidate() during the load may have missed these rows; serve them once but don't cache
+            banks.compute(key, (k, cached) -> generation.get() == loadedAt ? loaded : cached);
+            bank = loaded;
+        }
+        return bank;
+    }
+
+    /**
+     * Drop all snapshots; call after questions are created, changed or deleted
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        banks.clear();
+    }
+
+    private QuestionBank load(Long jobId) {
+        List<QuestionEntity> questions = jobId != null
+            ? questionRepository.findByJobIdAndIsActiveTrue(jobId)
+            : List.of();
+        if (questions.isEmpty()) {
+            questions = questionRepository.findByJobIdIsNullAndIsActiveTrue();
+        }
+
+        Long recruiterId = null;
+        for (QuestionEntity q : questions) {
+            // Snapshots outlive the request; in TABLE storage mode the options are a lazy collection
+            Hibernate.initialize(q.getOptions());
+            if (recruiterId == null) {
+                recruiterId = q.getRecruiterId();
+            }
+        }
+        if (jobId != null) {
+            Optional<Job> job = jobRepository.findById(jobId);
+            if (job.isPresent() && job.get().getRecruiterId() != null) {
+                recruiterId = job.get().getRecruiterId();
+            }
+        }
+        return new QuestionBank(questions, recruiterId);
+    }
+}
@@ -0,0 +1,429 @@
+package com.example.service;
+
+import com.example.config.QuestionOptionsMigration;
+import com.example.logging.ThrottledErrorLogger;
+import com.example.model.OptionsConverter;
+import com.example.model.OptionsStorage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bulk question import/export. Both directions stream: imports parse one
+ * row at a time and write validated rows in batched chunks, exports read
+ * the bank with a cursor and write each question as it arrives.
+ * Memory stays constant regardless of file size.
+ *
+ * Formats:
+ * - ndjson: one JSON object per line with questionText, options (array),
+ *   correctAnswer and optional jobId/recruiterId
+ * - csv: header row, then questionText, options, correctAnswer and
+ *   optional jobId/recruiterId columns. The options cell is a JSON array,
+ *   as exports write it, so options may contain any character; a cell
+ *   that does not start with "[" is read as "|"-separated (older files).
+ */
+@Service
+public class QuestionTransferService {
+    private static final Logger log = LoggerFactory.getLogger(QuestionTransferService.class);
+    private static final ThrottledErrorLogger errorLog = new ThrottledErrorLogger(log);
+
+    public static final String CSV = "csv";
+    public static final String NDJSON = "ndjson";
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int PROGRESS_EVERY = 1000;
+    private static final int MAX_OPTIONS = 10;
+    private static final OptionsConverter OPTIONS_CONVERTER = new OptionsConverter();
+    private static final String INSERT_SQL =
+        "INSERT INTO questions (question_text, options_data, correct_answer, is_active, job_id, recruiter_id) " +
+        "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final QuestionBankService questionBankService;
+    private final QuestionOptionsMigration optionsMigration;
+
+    public QuestionTransferService(JdbcTemplate jdbcTemplate, DataSource dataSource,
+                                   PlatformTransactionManager transactionManager,
+                                   ObjectMapper objectMapper, QuestionBankService questionBankService,
+                                   QuestionOptionsMigration optionsMigration) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbc = new JdbcTemplate(dataSource);
+        this.streamingJdbc.setFetchSize(CHUNK_SIZE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.questionBankService = questionBankService;
+        this.optionsMigration = optionsMigration;
+    }
+
+    /**
+     * Receives per-row errors and periodic progress while an import runs
+     */
+    public interface ImportListener {
+        void rowFailed(long row, String error) throws IOException;
+        void progress(long rowsRead, long imported, long failed) throws IOException;
+    }
+
+    // One validated input row
+    static class QuestionRow {
+        long rowNumber;
+        String questionText;
+        List<String> options;
+        String correctAnswer;
+        Long jobId;
+        Long recruiterId;
+    }
+
+    /**
+     * Import questions from a CSV or NDJSON stream
+     * @param recruiterId Signed-in recruiter who owns every row; rows naming another recruiter fail
+     * @param defaultJobId Job for rows without jobId (nullable)
+     * @return rowsRead, imported and failed counts; success=false and a message if a
+     *         database error stopped the import (rows imported before it stay saved)
+     */
+    public Map<String, Object> importQuestions(InputStream in, String format, Long recruiterId,
+                                               Long defaultJobId, ImportListener listener) throws IOException {
+        if (!CSV.equals(format) && !NDJSON.equals(format)) {
+            throw new IllegalArgumentException("Unsupported format: " + format + " (use csv or ndjson)");
+        }
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<QuestionRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        long rowsRead = 0;
+        long imported = 0;
+        long failed = 0;
+
+        CsvCodec csv = null;
+        Map<String, Integer> columns = null;
+        if (CSV.equals(format)) {
+            csv = new CsvCodec(reader);
+            columns = readCsvHeader(csv.readRecord());
+        }
+
+        String stoppedBy = null;
+        try {
+            while (true) {
+                QuestionRow row;
+                try {
+                    if (csv != null) {
+                        List<String> record = csv.readRecord();
+                        if (record == null) {
+                            break;
+                        }
+                        rowsRead++;
+                        if (record.size() == 1 && record.get(0).isBlank()) {
+                            rowsRead--;
+                            continue;
+                        }
+                        row = parseCsvRow(record, columns);
+                    } else {
+                        String line = reader.readLine();
+                        if (line == null) {
+                            break;
+                        }
+                        if (line.isBlank()) {
+                            continue;
+                        }
+                        rowsRead++;
+                        row = parseJsonRow(line);
+                    }
+                    row.rowNumber = rowsRead;
+                    if (row.jobId == null) {
+                        row.jobId = defaultJobId;
+                    }
+                    if (row.recruiterId == null) {
+                        row.recruiterId = recruiterId;
+                    } else if (!row.recruiterId.equals(recruiterId)) {
+                        throw new IllegalArgumentException("recruiterId must be the signed-in recruiter");
+                    }
+                    validate(row);
+                } catch (IllegalArgumentException | IOException e) {
+                    failed++;
+                    listener.rowFailed(rowsRead, e.getMessage());
+                    if (csv != null && e instanceof IOException) {
+                        break; // broken quoting; the rest of the file cannot be trusted
+                    }
+                    row = null;
+                }
+
+                if (row != null) {
+                    chunk.add(row);
+                    if (chunk.size() == CHUNK_SIZE) {
+                        int written = writeChunk(chunk, listener);
+                        imported += written;
+                        failed += chunk.size() - written;
+                        chunk.clear();
+                    }
+                }
+                if (rowsRead % PROGRESS_EVERY == 0) {
+                    listener.progress(rowsRead, imported, failed);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                int written = writeChunk(chunk, listener);
+                imported += written;
+                failed += chunk.size() - written;
+            }
+        } catch (DataAccessException e) {
+            // Not a bad row: the database itself failed, so stop instead of failing every remaining row
+            errorLog.error("Question import stopped after {} rows", e, imported);
+            stoppedBy = "Import stopped by a database error after " + imported + " imported rows";
+        } finally {
+            // Committed chunks are visible even if the import stopped part-way
+            if (imported > 0) {
+                if (OptionsStorage.current() == OptionsStorage.TABLE) {
+                    copyOptionsToTable(); // rows are inserted with options_data only
+                }
+                questionBankService.invalidate();
+            }
+        }
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("rowsRead", rowsRead);
+        summary.put("imported", imported);
+        summary.put("failed", failed);
+        if (stoppedBy != null) {
+            summary.put("success", false);
+            summary.put("message", stoppedBy);
+        }
+        return summary;
+    }
+
+    private void copyOptionsToTable() {
+        try {
+            optionsMigration.copyInlineToTable();
+        } catch (DataAccessException e) {
+            // The next start copies whatever is still missing
+            errorLog.error("Copying imported options to question_options failed", e);
+        }
+    }
+
+    Map<String, Integer> readCsvHeader(List<String> header) {
+        if (header == null) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("questiontext") || !columns.containsKey("options")
+                || !columns.containsKey("correctanswer")) {
+            throw new IllegalArgumentException("CSV header must contain questionText, options and correctAnswer");
+        }
+        return columns;
+    }
+
+    QuestionRow parseCsvRow(List<String> record, Map<String, Integer> columns) {
+        QuestionRow row = new QuestionRow();
+        row.questionText = column(record, columns, "questiontext");
+        row.options = parseCsvOptions(column(record, columns, "options"));
+        row.correctAnswer = column(record, columns, "correctanswer");
+        row.jobId = parseId(column(record, columns, "jobid"), "jobId");
+        row.recruiterId = parseId(column(record, columns, "recruiterid"), "recruiterId");
+        return row;
+    }
+
+    // JSON array cell, or the older "|"-separated form, which cannot carry a "|" inside an option
+    static List<String> parseCsvOptions(String cell) {
+        if (cell == null) {
+            return null;
+        }
+        if (cell.trim().startsWith("[")) {
+            List<String> options = OPTIONS_CONVERTER.convertToEntityAttribute(cell.trim());
+            return options != null ? options : new ArrayList<>();
+        }
+        return new ArrayList<>(Arrays.asList(cell.split("\\|", -1)));
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index != null && index < record.size() ? record.get(index) : null;
+    }
+
+    QuestionRow parseJsonRow(String line) {
+        Map<?, ?> json;
+        try {
+            json = objectMapper.readValue(line, Map.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getMessage());
+        }
+        QuestionRow row = new QuestionRow();
+        row.questionText = json.get("questionText") != null ? json.get("questionText").toString() : null;
+        if (json.get("options") instanceof List<?> options) {
+            row.options = new ArrayList<>(options.size());
+            for (Object option : options) {
+                row.options.add(option != null ? option.toString() : null);
+            }
+        }
+        row.correctAnswer = json.get("correctAnswer") != null ? json.get("correctAnswer").toString() : null;
+        row.jobId = parseId(json.get("jobId"), "jobId");
+        row.recruiterId = parseId(json.get("recruiterId"), "recruiterId");
+        return row;
+    }
+
+    private static Long parseId(Object value, String name) {
+        if (value == null || value.toString().isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    static void validate(QuestionRow row) {
+        if (row.questionText == null || row.questionText.isBlank()) {
+            throw new IllegalArgumentException("questionText is required");
+        }
+        if (row.options == null || row.options.size() < 2 || row.options.size() > MAX_OPTIONS) {
+            throw new IllegalArgumentException("Between 2 and " + MAX_OPTIONS + " options are required");
+        }
+        for (int i = 0; i < row.options.size(); i++) {
+            String option = row.options.get(i);
+            if (option == null || option.isBlank()) {
+                throw new IllegalArgumentException("Option " + (i + 1) + " is empty");
+            }
+            row.options.set(i, option.trim());
+        }
+        if (row.correctAnswer == null || row.correctAnswer.isBlank()) {
+            throw new IllegalArgumentException("correctAnswer is required");
+        }
+        row.correctAnswer = row.correctAnswer.trim();
+        boolean matches = row.options.stream().anyMatch(o -> o.equalsIgnoreCase(row.correctAnswer));
+        if (!matches) {
+            throw new IllegalArgumentException("correctAnswer must be one of the options");
+        }
+        row.questionText = row.questionText.trim();
+    }
+
+    /**
+     * One batched insert per chunk; options go in the inline column. If the
+     * batch is rejected the chunk is retried row by row, so only the rows the
+     * database refuses are reported, each with its input row number.
+     * @return number of rows written
+     * @throws DataAccessException if the database fails for a reason other than a bad row
+     */
+    private int writeChunk(List<QuestionRow> chunk, ImportListener listener) throws IOException {
+        try {
+            transactionTemplate.executeWithoutResult(tx ->
+                jdbcTemplate.batchUpdate(INSERT_SQL, chunk, chunk.size(), QuestionTransferService::bind));
+            return chunk.size();
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Batch of {} questions rejected, retrying row by row", chunk.size(), e);
+        }
+        int written = 0;
+        for (QuestionRow row : chunk) {
+            try {
+                transactionTemplate.executeWithoutResult(tx ->
+                    jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, row)));
+                written++;
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Question row {} rejected", row.rowNumber, e);
+                listener.rowFailed(row.rowNumber, "Rejected by the database (value too long or invalid reference)");
+            }
+        }
+        return written;
+    }
+
+    private static void bind(PreparedStatement ps, QuestionRow row) throws SQLException {
+        ps.setString(1, row.questionText);
+        ps.setString(2, OPTIONS_CONVERTER.convertToDatabaseColumn(row.options));
+        ps.setString(3, row.correctAnswer);
+        ps.setBoolean(4, true);
+        if (row.jobId != null) ps.setLong(5, row.jobId); else ps.setNull(5, Types.BIGINT);
+        if (row.recruiterId != null) ps.setLong(6, row.recruiterId); else ps.setNull(6, Types.BIGINT);
+    }
+
+    /**
+     * Stream active questions out as CSV or NDJSON
+     * @param recruiterId Only this recruiter's questions (nullable)
+     * @param jobId Only this job's questions (nullable)
+     */
+    public void exportQuestions(Long recruiterId, Long jobId, String format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        boolean csv = CSV.equals(format);
+        if (csv) {
+            CsvCodec.writeRecord(writer, List.of("id", "questionText", "options", "correctAnswer", "jobId", "recruiterId"));
+        }
+
+        StringBuilder sql = new StringBuilder(
+            "SELECT id, question_text, options_data, correct_answer, job_id, recruiter_id " +
+            "FROM questions WHERE is_active = true");
+        List<Object> args = new ArrayList<>();
+        if (recruiterId != null) {
+            sql.append(" AND recruiter_id = ?");
+            args.add(recruiterId);
+        }
+        if (jobId != null) {
+            sql.append(" AND job_id = ?");
+            args.add(jobId);
+        }
+        sql.append(" ORDER BY id");
+
+        streamingJdbc.query(sql.toString(), rs -> {
+            Map<String, Object> question = new LinkedHashMap<>();
+            question.put("id", rs.getLong(1));
+            question.put("questionText", rs.getString(2));
+            List<String> options = OPTIONS_CONVERTER.convertToEntityAttribute(rs.getString(3));
+            question.put("options", options != null ? options : List.of());
+            question.put("correctAnswer", rs.getString(4));
+            question.put("jobId", rs.getObject(5) != null ? rs.getLong(5) : null);
+            question.put("recruiterId", rs.getObject(6) != null ? rs.getLong(6) : null);
+            writeQuestion(writer, question, csv);
+        }, args.toArray());
+        writer.flush();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeQuestion(Writer writer, Map<String, Object> question, boolean csv) {
+        try {
+            if (csv) {
+                CsvCodec.writeRecord(writer, Arrays.asList(
+                    String.valueOf(question.get("id")),
+                    (String) question.get("questionText"),
+                    OPTIONS_CONVERTER.convertToDatabaseColumn((List<String>) question.get("options")),
+                    (String) question.get("correctAnswer"),
+                    question.get("jobId") != null ? question.get("jobId").toString() : "",
+                    question.get("recruiterId") != null ? question.get("recruiterId").toString() : ""));
+            } else {
+                writer.write(objectMapper.writeValueAsString(question));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
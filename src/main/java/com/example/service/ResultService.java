@@ -0,0 +1,110 @@
+package com.example.service;
+
+import com.example.model.AnswerRecord;
+import com.example.model.ResultEntity;
+import com.example.model.Student;
+import com.example.repository.ResultRepository;
+import com.example.repository.StudentRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+/**
+ * Single write path for finished tests: saves the result, updates the
+ * student's latest score, maintains the analytics rollups and the
+ * student's history summaries, and once
+ * everything is committed pushes the result notification and reindexes
+ * the student for candidate search.
+ */
+@Service
+public class ResultService {
+
+    private final ResultRepository resultRepository;
+    private final StudentRepository studentRepository;
+    private final AnalyticsService analyticsService;
+    private final NotificationService notificationService;
+    private final CandidateSearchService candidateSearchService;
+    private final AssessmentHistoryService assessmentHistoryService;
+
+    public ResultService(ResultRepository resultRepository, StudentRepository studentRepository,
+                         AnalyticsService analyticsService, NotificationService notificationService,
+                         CandidateSearchService candidateSearchService,
+                         AssessmentHistoryService assessmentHistoryService) {
+        this.resultRepository = resultRepository;
+        this.studentRepository = studentRepository;
+        this.analyticsService = analyticsService;
+        this.notificationService = notificationService;
+        this.candidateSearchService = candidateSearchService;
+        this.assessmentHistoryService = assessmentHistoryService;
+    }
+
+    /**
+     * Level for a score: up to 25% Beginner, up to 75% Intermediate, above that Advanced
+     */
+    public static String levelFor(int score, int totalQuestions) {
+        if (totalQuestions == 0) {
+            return "Beginner";
+        } else if (score <= totalQuestions * 0.25) {
+            return "Beginner";
+        } else if (score <= totalQuestions * 0.75) {
+            return "Intermediate";
+        } else {
+            return "Advanced";
+        }
+    }
+
+    /**
+     * Save a finished test
+     * @param student Student who took the test
+     * @param score Number of correct answers
+     * @param totalQuestions Number of scored questions
+     * @param recruiterId Recruiter whose questions/job were used (nullable)
+     * @param jobId Job the test was taken for (nullable)
+     * @param answers Per-question answers, stored compactly in the same insert
+     * @return Saved result
+     */
+    @Transactional
+    public ResultEntity record(Student student, int score, int totalQuestions, Long recruiterId, Long jobId,
+                               AnswerRecord answers) {
+        return record(student, score, totalQuestions, levelFor(score, totalQuestions), recruiterId, jobId, answers);
+    }
+
+    /**
+     * Save a finished test whose level was decided by the caller (e.g. adaptive tests)
+     */
+    @Transactional
+    public ResultEntity record(Student student, int score, int totalQuestions, String level,
+                               Long recruiterId, Long jobId, AnswerRecord answers) {
+        analyticsService.lockForSubmission();
+        ResultEntity result = new ResultEntity();
+        result.setStudent(student);
+        result.setScore(score);
+        result.setLevel(level);
+        result.setTotalQuestions(totalQuestions);
+        result.setTakenAt(LocalDateTime.now());
+        result.setRecruiterId(recruiterId);
+        result.setJobId(jobId);
+        result.setAnswerRecord(answers);
+        ResultEntity saved = resultRepository.save(result);
+
+        // Update student latest result
+        student.setScore(score);
+        student.setLevel(level);
+        studentRepository.save(student);
+
+        analyticsService.recordResult(saved, answers);
+        assessmentHistoryService.recordResult(saved);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                notificationService.notifyResult(saved);
+                candidateSearchService.indexStudent(student.getId()); // score and level changed
+            }
+        });
+        return saved;
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed resume store on local disk. A file is stored once
+ * under the SHA-256 of its content ("ab/abcdef....pdf"), so identical
+ * uploads share one copy, and the key never changes for a given file,
+ * which makes it a natural ETag.
+ *
+ * Uploads are copied through a fixed-size buffer while being hashed:
+ * memory use does not depend on the file size.
+ */
+@Service
+public class ResumeStorageService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Pattern KEY = Pattern.compile("[0-9a-f]{64}\\.(pdf|docx|doc|txt)");
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+        "pdf", "application/pdf",
+        "docx", "application/vnd.openxmlformats-officedocument.wordprocessingml.document",
+        "doc", "application/msword",
+        "txt", "text/plain; charset=UTF-8");
+
+    private final Path root;
+    private final Path tmp;
+    private final long maxBytes;
+
+    public ResumeStorageService(@Value("${skillfit.resumes.dir:data/resumes}") String dir,
+                                @Value("${skillfit.resumes.max-bytes:10485760}") long maxBytes) throws IOException {
+        this.root = Paths.get(dir).toAbsolutePath().normalize();
+        this.tmp = root.resolve("tmp");
+        this.maxBytes = maxBytes;
+        Files.createDirectories(tmp);
+    }
+
+    /**
+     * A stored file
+     */
+    public static class StoredResume {
+        private final String key;
+        private final long size;
+        private final boolean deduplicated;
+
+        StoredResume(String key, long size, boolean deduplicated) {
+            this.key = key;
+            this.size = size;
+            this.deduplicated = deduplicated;
+        }
+
+        // "<sha256>.<ext>", what Student.resumePath holds
+        public String getKey() { return key; }
+        public long getSize() { return size; }
+        // True when the same content was already stored
+        public boolean isDeduplicated() { return deduplicated; }
+    }
+
+    /**
+     * Store an upload
+     * @param filename Original file name; only its extension is used
+     * @throws IllegalArgumentException Unsupported type, empty or too large
+     */
+    public StoredResume store(InputStream in, String filename) throws IOException {
+        String extension = extensionOf(filename);
+        if (extension == null || !CONTENT_TYPES.containsKey(extension)) {
+            throw new IllegalArgumentException("Resume must be a PDF, DOCX, DOC or TXT file");
+        }
+
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(tmp, "upload-", ".part");
+        long size = 0;
+        try {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            try (ReadableByteChannel source = Channels.newChannel(in);
+                 FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (source.read(buffer) != -1) {
+                    buffer.flip();
+                    size += buffer.remaining();
+                    if (size > maxBytes) {
+                        throw new IllegalArgumentException(String.format("Resume is larger than %.1f MB", maxBytes / 1048576.0));
+                    }
+                    digest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        target.write(buffer);
+                    }
+                    buffer.clear();
+                }
+            }
+            if (size == 0) {
+                throw new IllegalArgumentException("Resume file is empty");
+            }
+
+            String key = HexFormat.of().formatHex(digest.digest()) + "." + extension;
+            Path target = pathOf(key);
+            if (Files.exists(target)) {
+                return new StoredResume(key, size, true);
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                return new StoredResume(key, size, true); // same content stored concurrently
+            }
+            return new StoredResume(key, size, false);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Whether a key names a stored file
+     */
+    public boolean exists(String key) {
+        return key != null && KEY.matcher(key).matches() && Files.isRegularFile(pathOf(key));
+    }
+
+    /**
+     * Location of a stored file, or null for an invalid or unknown key
+     */
+    public Path resolve(String key) {
+        return exists(key) ? pathOf(key) : null;
+    }
+
+    public static String contentTypeOf(String key) {
+        return CONTENT_TYPES.getOrDefault(extensionOf(key), "application/octet-stream");
+    }
+
+    // Keys are validated against KEY before reaching here, so no path traversal is possible
+    private Path pathOf(String key) {
+        return root.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    private static String extensionOf(String filename) {
+        if (filename == null) {
+            return null;
+        }
+        int dot = filename.lastIndexOf('.');
+        return dot >= 0 ? filename.substring(dot + 1).toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.service;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.stereotype.Service;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Plain text of stored resumes, for search indexing. PDF goes through
+ * PDFBox, DOCX is read directly from its XML (no Office library), TXT is
+ * decoded leniently; legacy DOC yields no text.
+ *
+ * Files in the store never change, so the text is cached next to the file
+ * ("<key>.text") and only extracted once per distinct upload.
+ */
+@Service
+public class ResumeTextExtractor {
+
+    private static final int MAX_CHARS = 200_000;
+    private static final int MAX_PDF_PAGES = 30;
+    private static final String WORD_NS = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+
+    private final ResumeStorageService resumeStorage;
+    private final XMLInputFactory xmlInputFactory;
+
+    public ResumeTextExtractor(ResumeStorageService resumeStorage) {
+        this.resumeStorage = resumeStorage;
+        this.xmlInputFactory = XMLInputFactory.newFactory();
+        // Uploaded XML is untrusted: no DTDs or external entities
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    /**
+     * Text of a stored resume, at most MAX_CHARS characters
+     * @return Extracted text, or "" for unknown keys and unsupported formats
+     */
+    public String textOf(String key) throws IOException {
+        Path file = resumeStorage.resolve(key);
+        if (file == null) {
+            return "";
+        }
+        Path cached = file.resolveSibling(file.getFileName() + ".text");
+        if (Files.exists(cached)) {
+            return Files.readString(cached, StandardCharsets.UTF_8);
+        }
+
+        String text;
+        if (key.endsWith(".pdf")) {
+            text = extractPdf(file);
+        } else if (key.endsWith(".docx")) {
+            text = extractDocx(file);
+        } else if (key.endsWith(".txt")) {
+            text = extractTxt(file);
+        } else {
+            text = "";
+        }
+        if (text.length() > MAX_CHARS) {
+            text = text.substring(0, MAX_CHARS);
+        }
+
+        Path temp = Files.createTempFile(file.getParent(), "text-", ".part");
+        try {
+            Files.writeString(temp, text, StandardCharsets.UTF_8);
+            Files.move(temp, cached, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return text;
+    }
+
+    private static String extractPdf(Path file) throws IOException {
+        try (PDDocument document = Loader.loadPDF(file.toFile())) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setEndPage(MAX_PDF_PAGES);
+            return stripper.getText(document);
+        }
+    }
+
+    // Text runs are <w:t> elements inside paragraphs <w:p> of word/document.xml
+    private String extractDocx(Path file) throws IOException {
+        try (ZipFile zip = new ZipFile(file.toFile())) {
+            ZipEntry entry = zip.getEntry("word/document.xml");
+            if (entry == null) {
+                return "";
+            }
+            StringBuilder text = new StringBuilder();
+            try (InputStream in = zip.getInputStream(entry)) {
+                XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(in);
+                boolean inText = false;
+                while (reader.hasNext() && text.length() < MAX_CHARS) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT && WORD_NS.equals(reader.getNamespaceURI())) {
+                        String name = reader.getLocalName();
+                        if ("t".equals(name)) {
+                            inText = true;
+                        } else if ("tab".equals(name) || "br".equals(name)) {
+                            text.append(' ');
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT && WORD_NS.equals(reader.getNamespaceURI())) {
+                        String name = reader.getLocalName();
+                        if ("t".equals(name)) {
+                            inText = false;
+                        } else if ("p".equals(name)) {
+                            text.append('\n');
+                        }
+                    } else if (inText && event == XMLStreamConstants.CHARACTERS) {
+                        text.append(reader.getText());
+                    }
+                }
+                reader.close();
+            } catch (XMLStreamException e) {
+                throw new IOException("Invalid DOCX content", e);
+            }
+            return text.toString();
+        }
+    }
+
+    private static String extractTxt(Path file) throws IOException {
+        // Resumes saved in other encodings should still index, so bad bytes are replaced
+        try (Reader reader = new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE))) {
+            char[] buffer = new char[MAX_CHARS];
+            int length = 0;
+            int read;
+            while (length < MAX_CHARS && (read = reader.read(buffer, length, MAX_CHARS - length)) != -1) {
+                length += read;
+            }
+            return new String(buffer, 0, length);
+        }
+    }
+}
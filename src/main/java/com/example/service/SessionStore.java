@@ -0,0 +1,90 @@
+package com.example.service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded in-memory store for short-lived test sessions. Entries expire
+ * after an idle timeout (each access extends it) and the store refuses new
+ * sessions instead of growing past its capacity. Owners call purgeExpired()
+ * from a scheduled task.
+ */
+public class SessionStore<V> {
+
+    private static class Entry<V> {
+        final V value;
+        volatile long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final Map<String, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+    private final long idleTimeoutMs;
+
+    public SessionStore(int capacity, long idleTimeoutMs) {
+        this.capacity = capacity;
+        this.idleTimeoutMs = idleTimeoutMs;
+    }
+
+    /**
+     * Store a value under a new random session ID
+     * @return Session ID, or empty if the store is full
+     */
+    public Optional<String> add(V value) {
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            purgeExpired();
+            if (size.incrementAndGet() > capacity) {
+                size.decrementAndGet();
+                return Optional.empty();
+            }
+        }
+        String id = UUID.randomUUID().toString();
+        entries.put(id, new Entry<>(value, System.currentTimeMillis() + idleTimeoutMs));
+        return Optional.of(id);
+    }
+
+    /**
+     * Look up a live session and extend its expiry
+     */
+    public Optional<V> get(String id) {
+        Entry<V> entry = entries.get(id);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        long now = System.currentTimeMillis();
+        if (entry.expiresAt < now) {
+            remove(id);
+            return Optional.empty();
+        }
+        entry.expiresAt = now + idleTimeoutMs;
+        return Optional.of(entry.value);
+    }
+
+    public void remove(String id) {
+        if (entries.remove(id) != null) {
+            size.decrementAndGet();
+        }
+    }
+
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        entries.forEach((id, entry) -> {
+            if (entry.expiresAt < now && entries.remove(id, entry)) {
+                size.decrementAndGet();
+            }
+        });
+    }
+
+    public int size() {
+        return size.get();
+    }
+}
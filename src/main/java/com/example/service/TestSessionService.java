@@ -0,0 +1,169 @@
+package com.example.service;
+
+import com.example.model.QuestionEntity;
+import com.example.model.ResultEntity;
+import com.example.model.Student;
+import com.example.repository.StudentRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Server-side test sessions. Starting a session draws a random subset and
+ * order of the job's question bank from a seed that never leaves the
+ * server, so clients can neither choose nor replay a question set. The
+ * session keeps only the indexes of the served questions into the cached
+ * bank snapshot, so submission scores exactly what was served without
+ * touching the database.
+ */
+@Service
+public class TestSessionService {
+
+    private final QuestionBankService questionBankService;
+    private final StudentRepository studentRepository;
+    private final ResultService resultService;
+    private final SessionStore<TestSession> sessions;
+    private final int defaultQuestionCount;
+
+    public TestSessionService(QuestionBankService questionBankService, StudentRepository studentRepository,
+                              ResultService resultService,
+                              @Value("${skillfit.sessions.max-sessions:50000}") int maxSessions,
+                              @Value("${skillfit.sessions.timeout-ms:7200000}") long timeoutMs,
+                              @Value("${skillfit.sessions.default-question-count:20}") int defaultQuestionCount) {
+        this.questionBankService = questionBankService;
+        this.studentRepository = studentRepository;
+        this.resultService = resultService;
+        this.sessions = new SessionStore<>(maxSessions, timeoutMs);
+        this.defaultQuestionCount = defaultQuestionCount;
+    }
+
+    private static class TestSession {
+        final Long studentId;
+        final Long jobId;
+        final QuestionBankService.QuestionBank bank;
+        final int[] served; // indexes into bank, in serving order
+        boolean submitted;
+
+        TestSession(Long studentId, Long jobId, QuestionBankService.QuestionBank bank, int[] served) {
+            this.studentId = studentId;
+            this.jobId = jobId;
+            this.bank = bank;
+            this.served = served;
+        }
+    }
+
+    /**
+     * Start a session with a random subset of the bank
+     * @param count Number of questions (defaults to skillfit.sessions.default-question-count)
+     * @param studentId Signed-in student; the caller has checked the token
+     * @return sessionId and the served questions without answers, or an "error" entry
+     */
+    public Map<String, Object> start(Long studentId, Long jobId, Integer count) {
+        Map<String, Object> res = new HashMap<>();
+        QuestionBankService.QuestionBank bank = questionBankService.getBank(jobId);
+        if (bank.isEmpty()) {
+            res.put("error", "No questions available");
+            return res;
+        }
+
+        int n = Math.min(count != null && count > 0 ? count : defaultQuestionCount, bank.size());
+        int[] served = sample(bank.size(), n, ThreadLocalRandom.current().nextLong());
+
+        TestSession session = new TestSession(studentId, jobId, bank, served);
+        Optional<String> sessionId = sessions.add(session);
+        if (!sessionId.isPresent()) {
+            res.put("error", "Too many active test sessions, please retry later");
+            return res;
+        }
+
+        List<Map<String, Object>> questions = new ArrayList<>(n);
+        for (int index : served) {
+            QuestionEntity q = bank.question(index);
+            Map<String, Object> questionData = new HashMap<>();
+            questionData.put("id", q.getId());
+            questionData.put("questionText", q.getQuestionText());
+            questionData.put("options", q.getOptions());
+            questions.add(questionData);
+        }
+        res.put("sessionId", sessionId.get());
+        res.put("questions", questions);
+        return res;
+    }
+
+    /**
+     * Score a session against its own answer key and save the result
+     * @param studentId Signed-in student; another student's session is reported as not found
+     * @param userAnswers questionId -> answer
+     */
+    public Map<String, Object> submit(String sessionId, Long studentId, Map<String, String> userAnswers) {
+        Map<String, Object> res = new HashMap<>();
+        Optional<TestSession> sessionOpt = sessions.get(sessionId);
+        if (!sessionOpt.isPresent() || !sessionOpt.get().studentId.equals(studentId)) {
+            res.put("error", "Session not found or expired");
+            return res;
+        }
+        TestSession session = sessionOpt.get();
+        synchronized (session) {
+            if (session.submitted) {
+                res.put("error", "Session already submitted");
+                return res;
+            }
+            session.submitted = true;
+        }
+        sessions.remove(sessionId);
+
+        QuestionBankService.ScoredTest scored = session.bank.score(session.served, userAnswers);
+        int score = scored.getScore();
+
+        int totalQuestions = session.served.length;
+        String level = ResultService.levelFor(score, totalQuestions);
+        Optional<Student> student = studentRepository.findById(session.studentId);
+        if (student.isPresent()) {
+            ResultEntity saved = resultService.record(student.get(), score, totalQuestions,
+                                                      session.bank.getRecruiterId(), session.jobId, scored.getAnswers());
+            res.put("resultId", saved.getId());
+        }
+
+        res.put("score", score);
+        res.put("totalQuestions", totalQuestions);
+        res.put("level", level);
+        res.put("questionDetails", scored.getQuestionDetails());
+        res.put("message", "Test submitted successfully! Score saved to profile.");
+        return res;
+    }
+
+    public int getActiveSessions() {
+        return sessions.size();
+    }
+
+    // First n entries of a seeded partial Fisher-Yates shuffle of 0..size-1
+    static int[] sample(int size, int n, long seed) {
+        int[] indexes = new int[size];
+        for (int i = 0; i < size; i++) {
+            indexes[i] = i;
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < n; i++) {
+            int j = i + random.nextInt(size - i);
+            int tmp = indexes[i];
+            indexes[i] = indexes[j];
+            indexes[j] = tmp;
+        }
+        int[] served = new int[n];
+        System.arraycopy(indexes, 0, served, 0, n);
+        return served;
+    }
+
+    @Scheduled(fixedRate = 60 * 1000)
+    public void purgeExpiredSessions() {
+        sessions.purgeExpired();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ThrottledErrorLoggerTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(ThrottledErrorLoggerTest.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void attach() {
+        logger.setLevel(Level.INFO);
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void detach() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void repeatsWithinTheWindowLogNoErrorLines() {
+        ThrottledErrorLogger errorLog = new ThrottledErrorLogger(logger);
+        RuntimeException failure = failure();
+
+        for (int i = 0; i < 5; i++) {
+            errorLog.error("Lookup failed for {}", failure, "key");
+        }
+
+        List<ILoggingEvent> events = appender.list;
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getLevel()).isEqualTo(Level.ERROR);
+        assertThat(events.get(0).getFormattedMessage()).isEqualTo("Lookup failed for key");
+        assertThat(events.get(0).getThrowableProxy()).isNotNull();
+    }
+
+    @Test
+    void nextReportCountsTheRepeats() throws InterruptedException {
+        ThrottledErrorLogger errorLog = new ThrottledErrorLogger(logger, 20);
+        RuntimeException failure = failure();
+
+        errorLog.error("Lookup failed", failure);
+        errorLog.error("Lookup failed", failure);
+        errorLog.error("Lookup failed", failure);
+        Thread.sleep(40);
+        errorLog.error("Lookup failed", failure);
+
+        List<ILoggingEvent> events = appender.list;
+        assertThat(events).hasSize(2);
+        assertThat(events.get(1).getFormattedMessage())
+            .isEqualTo("Lookup failed (2 similar errors since the last report)");
+        assertThat(events.get(1).getThrowableProxy()).isNotNull();
+    }
+
+    @Test
+    void repeatsAreLoggedAtDebugWhenEnabled() {
+        logger.setLevel(Level.DEBUG);
+        ThrottledErrorLogger errorLog = new ThrottledErrorLogger(logger);
+        RuntimeException failure = failure();
+
+        errorLog.error("Lookup failed", failure);
+        errorLog.error("Lookup failed", failure);
+
+        assertThat(appender.list).extracting(ILoggingEvent::getLevel).containsExactly(Level.ERROR, Level.DEBUG);
+    }
+
+    private static RuntimeException failure() {
+        return new IllegalStateException("connection refused");
+    }
+}
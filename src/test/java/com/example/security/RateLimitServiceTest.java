@@ -0,0 +1,27 @@
+package com.example.security;
+
+import com.example.exception.RateLimitedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimitServiceTest {
+
+    @Test
+    void emailRejectionDoesNotSpendTheIpBudget() {
+        RateLimitService limits = new RateLimitService(new MockEnvironment()
+            .withProperty("skillfit.rate-limit.login.per-ip", "2")
+            .withProperty("skillfit.rate-limit.login.per-email", "1"), new SimpleMeterRegistry());
+
+        limits.check(RateLimitService.LOGIN, "10.0.0.1", "a@example.com");
+        assertThatThrownBy(() -> limits.check(RateLimitService.LOGIN, "10.0.0.1", "a@example.com"))
+            .isInstanceOf(RateLimitedException.class);
+
+        // No email: only the IP budget, which the rejected request must not have spent
+        assertThatCode(() -> limits.check(RateLimitService.LOGIN, "10.0.0.1", null))
+            .doesNotThrowAnyException();
+    }
+}
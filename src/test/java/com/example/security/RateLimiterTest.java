@@ -0,0 +1,76 @@
+package com.example.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimiterTest {
+
+    @Test
+    void allowsBurstThenReportsWait() {
+        RateLimiter limiter = new RateLimiter(3, 1, TimeUnit.HOURS, 16);
+
+        assertThat(limiter.tryAcquire("1.2.3.4")).isZero();
+        assertThat(limiter.tryAcquire("1.2.3.4")).isZero();
+        assertThat(limiter.tryAcquire("1.2.3.4")).isZero();
+
+        long wait = limiter.tryAcquire("1.2.3.4");
+        assertThat(wait).isPositive().isLessThanOrEqualTo(TimeUnit.MINUTES.toNanos(20));
+    }
+
+    @Test
+    void rejectedRequestsDoNotConsumePermits() {
+        RateLimiter limiter = new RateLimiter(1, 1, TimeUnit.HOURS, 16);
+        long hour = TimeUnit.HOURS.toNanos(1);
+        long slack = TimeUnit.SECONDS.toNanos(10);
+
+        assertThat(limiter.tryAcquire("a@example.com")).isZero();
+        // Had a rejection taken a permit, the next wait would be about two hours
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("a@example.com")).isBetween(hour - slack, hour);
+        }
+    }
+
+    @Test
+    void acquireSucceedsOnceTheWaitHasPassed() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(1, 50, TimeUnit.MILLISECONDS, 16);
+
+        assertThat(limiter.tryAcquire("key")).isZero();
+        assertThat(limiter.tryAcquire("key")).isPositive();
+        assertThat(limiter.tryAcquire("key")).isPositive();
+        Thread.sleep(80);
+
+        assertThat(limiter.tryAcquire("key")).isZero();
+    }
+
+    @Test
+    void refundReturnsThePermit() {
+        RateLimiter limiter = new RateLimiter(1, 1, TimeUnit.HOURS, 16);
+        assertThat(limiter.tryAcquire("key")).isZero();
+
+        limiter.refund("key");
+
+        assertThat(limiter.tryAcquire("key")).isZero();
+        assertThat(limiter.tryAcquire("key")).isPositive();
+    }
+
+    @Test
+    void resetForgetsAllBuckets() {
+        RateLimiter limiter = new RateLimiter(1, 1, TimeUnit.HOURS, 16);
+        assertThat(limiter.tryAcquire("key")).isZero();
+        assertThat(limiter.tryAcquire("key")).isPositive();
+
+        limiter.reset();
+
+        assertThat(limiter.tryAcquire("key")).isZero();
+    }
+
+    @Test
+    void rejectsNonPositivePermits() {
+        assertThatThrownBy(() -> new RateLimiter(0, 1, TimeUnit.MINUTES, 16))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
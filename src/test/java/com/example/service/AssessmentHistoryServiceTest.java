@@ -0,0 +1,45 @@
+package com.example.service;
+
+import com.example.exception.ApiException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AssessmentHistoryServiceTest {
+
+    @Test
+    void cursorRoundTrips() {
+        LocalDateTime takenAt = LocalDateTime.of(2024, 3, 5, 14, 30, 15, 123_000_000);
+
+        Object[] position = AssessmentHistoryService.decodeCursor(AssessmentHistoryService.encodeCursor(takenAt, 42L));
+
+        assertThat(position[0]).isEqualTo(Timestamp.valueOf(takenAt));
+        assertThat(position[1]).isEqualTo(42L);
+    }
+
+    @Test
+    void cursorIsUrlSafe() {
+        String cursor = AssessmentHistoryService.encodeCursor(LocalDateTime.of(2024, 1, 1, 0, 0), Long.MAX_VALUE);
+
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        String notBase64 = "not a cursor!";
+        String noId = Base64.getUrlEncoder().encodeToString("2024-01-01T00:00".getBytes(StandardCharsets.UTF_8));
+        String badDate = Base64.getUrlEncoder().encodeToString("yesterday|7".getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : new String[] { notBase64, noId, badDate }) {
+            assertThatThrownBy(() -> AssessmentHistoryService.decodeCursor(cursor))
+                .isInstanceOf(ApiException.class)
+                .extracting("error").isEqualTo("INVALID_CURSOR");
+        }
+    }
+}
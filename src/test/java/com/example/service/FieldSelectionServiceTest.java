@@ -0,0 +1,36 @@
+package com.example.service;
+
+import com.example.exception.ApiException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FieldSelectionServiceTest {
+
+    @Test
+    void keepsRequestOrderAndDropsDuplicatesAndBlanks() {
+        assertThat(FieldSelectionService.parse(" score, id,,name,id ", FieldSelectionService.STUDENT_FIELDS))
+            .containsExactly("score", "id", "name");
+    }
+
+    @Test
+    void rejectsUnknownFields() {
+        assertThatThrownBy(() -> FieldSelectionService.parse("id,password", FieldSelectionService.STUDENT_FIELDS))
+            .isInstanceOf(ApiException.class)
+            .hasMessageContaining("password")
+            .extracting("error").isEqualTo("INVALID_FIELDS");
+    }
+
+    @Test
+    void rejectsEmptyList() {
+        assertThatThrownBy(() -> FieldSelectionService.parse(" , ", FieldSelectionService.JOB_FIELDS))
+            .isInstanceOf(ApiException.class);
+    }
+
+    @Test
+    void fieldNamesAreCaseSensitive() {
+        assertThatThrownBy(() -> FieldSelectionService.parse("companyname", FieldSelectionService.JOB_FIELDS))
+            .isInstanceOf(ApiException.class);
+    }
+}
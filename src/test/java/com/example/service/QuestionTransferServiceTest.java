@@ -0,0 +1,111 @@
+package com.example.service;
+
+import com.example.model.OptionsConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class QuestionTransferServiceTest {
+
+    private final QuestionTransferService service = new QuestionTransferService(
+        null, mock(DataSource.class), null, new ObjectMapper(), null, null);
+
+    private static final Map<String, Integer> COLUMNS = Map.of(
+        "questiontext", 0, "options", 1, "correctanswer", 2, "jobid", 3, "recruiterid", 4);
+
+    @Test
+    void readsJsonArrayOptionsCell() {
+        assertThat(QuestionTransferService.parseCsvOptions("[\"a|b\",\"c, d\",\"\\\"e\\\"\"]"))
+            .containsExactly("a|b", "c, d", "\"e\"");
+    }
+
+    @Test
+    void readsLegacyPipeSeparatedOptions() {
+        assertThat(QuestionTransferService.parseCsvOptions("HTML|Java|CSS")).containsExactly("HTML", "Java", "CSS");
+        assertThat(QuestionTransferService.parseCsvOptions("a||b")).containsExactly("a", "", "b");
+        assertThat(QuestionTransferService.parseCsvOptions(null)).isNull();
+    }
+
+    @Test
+    void rejectsBrokenJsonOptions() {
+        assertThatThrownBy(() -> QuestionTransferService.parseCsvOptions("[\"a\","))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void optionsWithSeparatorsSurviveCsvRoundTrip() throws IOException {
+        List<String> options = List.of("x | y", "a,b", "say \"hi\"", "line\nbreak");
+        StringWriter out = new StringWriter();
+        CsvCodec.writeRecord(out, List.of("Pick one", new OptionsConverter().convertToDatabaseColumn(options),
+            "a,b", "7", ""));
+
+        List<String> record = new CsvCodec(new StringReader(out.toString())).readRecord();
+        QuestionTransferService.QuestionRow row = service.parseCsvRow(record, COLUMNS);
+
+        assertThat(row.options).containsExactlyElementsOf(options);
+        assertThat(row.correctAnswer).isEqualTo("a,b");
+        assertThat(row.jobId).isEqualTo(7L);
+        assertThat(row.recruiterId).isNull();
+    }
+
+    @Test
+    void csvHeaderIsCaseInsensitiveAndRequiresCoreColumns() {
+        assertThat(service.readCsvHeader(List.of("QuestionText", " Options ", "correctAnswer")))
+            .containsEntry("questiontext", 0).containsEntry("options", 1).containsEntry("correctanswer", 2);
+        assertThatThrownBy(() -> service.readCsvHeader(List.of("questionText", "options")))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.readCsvHeader(null))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void parsesJsonRows() {
+        QuestionTransferService.QuestionRow row = service.parseJsonRow(
+            "{\"questionText\":\"Q\",\"options\":[\"A\",\"B\"],\"correctAnswer\":\"B\",\"jobId\":\"12\"}");
+
+        assertThat(row.questionText).isEqualTo("Q");
+        assertThat(row.options).containsExactly("A", "B");
+        assertThat(row.correctAnswer).isEqualTo("B");
+        assertThat(row.jobId).isEqualTo(12L);
+    }
+
+    @Test
+    void rejectsInvalidJsonRowsAndIds() {
+        assertThatThrownBy(() -> service.parseJsonRow("{\"questionText\":"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageStartingWith("Invalid JSON");
+        assertThatThrownBy(() -> service.parseJsonRow("{\"questionText\":\"Q\",\"jobId\":\"abc\"}"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Invalid jobId: abc");
+    }
+
+    @Test
+    void validateTrimsAndRequiresCorrectAnswerAmongOptions() {
+        QuestionTransferService.QuestionRow row = service.parseJsonRow(
+            "{\"questionText\":\" Q \",\"options\":[\" A \",\"B\"],\"correctAnswer\":\" a \"}");
+        QuestionTransferService.validate(row);
+        assertThat(row.questionText).isEqualTo("Q");
+        assertThat(row.options).containsExactly("A", "B");
+        assertThat(row.correctAnswer).isEqualTo("a");
+
+        QuestionTransferService.QuestionRow wrong = service.parseJsonRow(
+            "{\"questionText\":\"Q\",\"options\":[\"A\",\"B\"],\"correctAnswer\":\"C\"}");
+        assertThatThrownBy(() -> QuestionTransferService.validate(wrong))
+            .hasMessage("correctAnswer must be one of the options");
+
+        QuestionTransferService.QuestionRow tooFew = service.parseJsonRow(
+            "{\"questionText\":\"Q\",\"options\":[\"A\"],\"correctAnswer\":\"A\"}");
+        assertThatThrownBy(() -> QuestionTransferService.validate(tooFew))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}